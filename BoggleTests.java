@@ -35,6 +35,63 @@ public class BoggleTests {
         assertEquals(expected, allWords.keySet());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void nextBoard() throws Exception {
+        BoggleGame game = new BoggleGame();
+        Method prepare = game.getClass().getDeclaredMethod("prepareNextBoard", int.class, int.class);
+        Method take = game.getClass().getDeclaredMethod("takeNextBoard", int.class, int.class);
+        Method discard = game.getClass().getDeclaredMethod("discardNextBoard");
+        Field nextBoard = game.getClass().getDeclaredField("nextBoard");
+        for (java.lang.reflect.AccessibleObject member : Arrays.asList(prepare, take, discard, nextBoard)) member.setAccessible(true);
+
+        // a random round of the same size plays the board rolled for it, with the search already started
+        prepare.invoke(game, 5, 5);
+        Object pending = nextBoard.get(game);
+        Class<?> pendingClass = pending.getClass();
+        Field gridField = pendingClass.getDeclaredField("grid");
+        Field solvingField = pendingClass.getDeclaredField("solving");
+        Field foundField = pendingClass.getDeclaredField("found");
+        Field cancelledField = pendingClass.getDeclaredField("cancelled");
+        for (Field field : Arrays.asList(gridField, solvingField, foundField, cancelledField)) field.setAccessible(true);
+        assertSame(pending, take.invoke(game, 5, 5));
+        assertNull(nextBoard.get(game));
+        BoggleGrid grid = (BoggleGrid) gridField.get(pending);
+        SolvedBoard prepared = ((java.util.concurrent.CompletableFuture<SolvedBoard>) solvingField.get(pending)).get();
+        SolvedBoard solved = new BoggleSolver(Dictionary.getInstance()).solve(grid);
+        assertEquals(solved.size(), prepared.size());
+        for (int i = 0; i < solved.size(); i++) assertEquals(solved.getWord(i), prepared.getWord(i));
+        assertFalse((Boolean) cancelledField.get(pending));
+
+        // a round of another size throws the board away, and so do custom letters and saved games
+        prepare.invoke(game, 5, 5);
+        pending = nextBoard.get(game);
+        assertNull(take.invoke(game, 4, 4));
+        assertNull(nextBoard.get(game));
+        assertTrue((Boolean) cancelledField.get(pending));
+        prepare.invoke(game, 5, 5);
+        pending = nextBoard.get(game);
+        discard.invoke(game);
+        assertNull(nextBoard.get(game));
+        assertTrue((Boolean) cancelledField.get(pending));
+
+        // a board thrown away part way through its search stops being searched
+        prepare.invoke(game, 80, 80);
+        pending = nextBoard.get(game);
+        java.util.concurrent.CompletableFuture<SolvedBoard> solving = (java.util.concurrent.CompletableFuture<SolvedBoard>) solvingField.get(pending);
+        Set<String> found = (Set<String>) foundField.get(pending);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (found.isEmpty() && System.currentTimeMillis() < deadline) Thread.sleep(1);
+        assertFalse(found.isEmpty());
+        discard.invoke(game);
+        assertTrue(solving.isCancelled());
+        Thread.sleep(200);
+        int stopped = found.size();
+        Thread.sleep(300);
+        assertEquals(stopped, found.size());
+        assertTrue(stopped < new BoggleSolver(Dictionary.getInstance()).solveParallel((BoggleGrid) gridField.get(pending)).size());
+    }
+
     @Test
     void findAllWords_small2() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
         BoggleGame game = new BoggleGame();
@@ -51,6 +108,104 @@ public class BoggleTests {
         assertEquals(expected, allWords.keySet());
     }
 
+    @Test
+    void findAllWordsParallel() {
+        BoggleSolver solver = new BoggleSolver(new Dictionary("wordlist.txt"));
+        for (String letters : Arrays.asList("EARTSNOILDECPMHUTSERAGNOI", "SERSPATGLINESERSOTELAMIRNDEASTELREAB")) {
+            int size = (int) Math.sqrt(letters.length());
+            BoggleGrid grid = new BoggleGrid(size);
+            grid.initalizeBoard(letters);
+            Map<String, ArrayList<Position>> sequential = new HashMap<>();
+            Map<String, ArrayList<Position>> parallel = new HashMap<>();
+            solver.findAllWords(sequential, grid);
+            solver.findAllWordsParallel(parallel, grid);
+
+            assertEquals(sequential.keySet(), parallel.keySet());
+            for (String word : sequential.keySet()) {
+                for (int i = 0; i < word.length(); i++) {
+                    assertEquals(sequential.get(word).get(i).getRow(), parallel.get(word).get(i).getRow());
+                    assertEquals(sequential.get(word).get(i).getCol(), parallel.get(word).get(i).getCol());
+                }
+            }
+
+            // the words come out in the same order, however the tasks were scheduled
+            SolvedBoard solved = solver.solve(grid);
+            for (int run = 0; run < 10; run++) {
+                SolvedBoard solvedParallel = solver.solveParallel(grid);
+                assertEquals(solved.size(), solvedParallel.size());
+                for (int i = 0; i < solved.size(); i++) assertEquals(solved.getWord(i), solvedParallel.getWord(i));
+            }
+        }
+    }
+
+    @Test
+    void streamingSolve() {
+        BoggleSolver solver = new BoggleSolver(new Dictionary("wordlist.txt"));
+        for (String letters : Arrays.asList("EARTSNOILDECPMHUTSERAGNOI", "SERSPATGLINESERSOTELAMIRNDEASTELREAB")) {
+            int size = (int) Math.sqrt(letters.length());
+            BoggleGrid grid = new BoggleGrid(size);
+            grid.initalizeBoard(letters);
+            List<String> streamed = new ArrayList<>();
+            SolvedBoard solved = solver.solve(grid, streamed::add);
+            assertEquals(solved.size(), streamed.size());
+            for (int i = 0; i < solved.size(); i++) assertEquals(solved.getWord(i), streamed.get(i));
+
+            List<String> parallel = Collections.synchronizedList(new ArrayList<>());
+            solver.solveParallel(grid, parallel::add);
+            assertEquals(solved.size(), parallel.size());
+            assertEquals(solved.toMap().keySet(), new HashSet<>(parallel));
+        }
+    }
+
+    @Test
+    void solveCache() throws java.io.IOException {
+        Dictionary dict = new Dictionary("wordlist.txt");
+        BoggleGrid grid = new BoggleGrid(4);
+        grid.initalizeBoard("RHLDNHTGIPHSNMJO");
+        SolvedBoard solved = new BoggleSolver(dict).solve(grid);
+
+        SolveCache cache = new SolveCache(1);
+        assertNull(cache.get(dict, grid));
+        cache.put(dict, grid, solved);
+        java.io.File file = java.io.File.createTempFile("solveCache", ".txt");
+        file.deleteOnExit();
+        cache.save(file.getPath());
+
+        SolvedBoard cached = SolveCache.load(file.getPath(), 1).get(dict, grid);
+        assertEquals(solved.toMap().keySet(), cached.toMap().keySet());
+        int ghost = solved.indexOf("GHOST");
+        assertEquals(solved.getCell(ghost, 4), cached.getCell(cached.indexOf("GHOST"), 4));
+        assertEquals(solved.getNode(ghost), cached.getNode(cached.indexOf("GHOST")));
+
+        BoggleGrid other = new BoggleGrid(4);
+        other.initalizeBoard("MINJJJJJJJJJJJJJ");
+        cache.put(dict, other, new BoggleSolver(dict).solve(other));
+        assertNull(cache.get(dict, grid));
+    }
+
+    @Test
+    void boardSymmetry() {
+        BoggleGrid grid = new BoggleGrid(4);
+        grid.initalizeBoard("RHLDNHTGIPHSNMJO");
+        BoggleGrid rotated = new BoggleGrid(4); // grid turned a quarter turn clockwise
+        rotated.initalizeBoard("NINRMPHHJHTLOSGD");
+        assertEquals(BoardSymmetry.of(grid).getCanonicalGrid().toString(), BoardSymmetry.of(rotated).getCanonicalGrid().toString());
+
+        SolveCache cache = new SolveCache(10);
+        Dictionary dict = new Dictionary("wordlist.txt");
+        cache.put(dict, grid, new BoggleSolver(dict).solve(grid));
+
+        SolvedBoard rotatedWords = cache.get(dict, rotated);
+        assertEquals(3, rotatedWords.size());
+        for (int i = 0; i < rotatedWords.size(); i++) {
+            String spelled = "";
+            for (Position position : rotatedWords.getPath(i)) {
+                spelled += rotated.getCharAt(position.getRow(), position.getCol());
+            }
+            assertEquals(rotatedWords.getWord(i), spelled);
+        }
+    }
+
     //Dictionary Test
     @Test
     void containsWord() {
@@ -62,7 +217,470 @@ public class BoggleTests {
         assertTrue(dict.containsWord("app") == false);
     }
 
+    @Test
+    void compiledDictionary() throws java.io.IOException {
+        java.io.File compiled = java.io.File.createTempFile("wordlist", ".dict");
+        compiled.deleteOnExit();
+        new Dictionary("./wordlist.txt").writeCompiled(compiled.getPath());
+
+        Dictionary dict = new Dictionary(compiled.getPath());
+        assertTrue(dict.containsWord("ENZYME"));
+        assertTrue(dict.isPrefix("pench"));
+        assertTrue(dict.isPrefix("penchs") == false);
+        assertTrue(dict.isPrefix(""));
+        assertTrue(dict.containsWord("app") == false);
+    }
+
+    @Test
+    void batchOutput() throws java.io.IOException {
+        PrintStream console = System.out;
+        java.io.ByteArrayOutputStream captured = new java.io.ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            Dictionary dict = new Dictionary("wordlist.txt");
+            java.io.BufferedReader boards = new java.io.BufferedReader(new java.io.StringReader("RHLDNHTGIPHSNMJO\n"));
+            new BatchSolver(dict, 2).run(boards, System.out);
+        } finally {
+            System.setOut(console);
+        }
+        String[] lines = captured.toString().split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("RHLDNHTGIPHSNMJO\t"));
+    }
+
+    @Test
+    void searchIntoBatch() throws java.io.IOException {
+        PrintStream console = System.out;
+        java.io.ByteArrayOutputStream searched = new java.io.ByteArrayOutputStream();
+        java.io.ByteArrayOutputStream solved = new java.io.ByteArrayOutputStream();
+        System.setOut(new PrintStream(searched, true));
+        try {
+            assertTrue(BoardSearch.runAndReport(new String[]{"3", "--size", "4x6", "--seed", "7", "--threads", "1"}, System.out));
+            System.setOut(new PrintStream(solved, true));
+            java.io.BufferedReader boards = new java.io.BufferedReader(new java.io.StringReader(searched.toString()));
+            new BatchSolver(Dictionary.getInstance(), 2).run(boards, System.out);
+        } finally {
+            System.setOut(console);
+        }
+        String[] boards = searched.toString().split("\n");
+        String[] results = solved.toString().split("\n");
+        assertEquals(3, boards.length);
+        assertEquals(3, results.length);
+        for (int i = 0; i < boards.length; i++) {
+            assertTrue(boards[i].startsWith("4x6:"));
+            String[] columns = results[i].split("\t");
+            assertEquals(boards[i].toUpperCase(), columns[0]);
+            assertNotEquals("ERROR", columns[1]);
+        }
+    }
+
+    @Test
+    void truncatedCompiledDictionary() throws java.io.IOException {
+        java.io.File compiled = java.io.File.createTempFile("wordlist", ".dict");
+        compiled.deleteOnExit();
+        Dictionary words = new Dictionary("./wordlist.txt");
+        words.writeCompiled(compiled.getPath());
+        java.nio.file.Path path = compiled.toPath();
+        byte[] whole = java.nio.file.Files.readAllBytes(path);
+        for (int length : new int[]{whole.length / 2, 10}) {
+            java.nio.file.Files.write(path, Arrays.copyOf(whole, length));
+            assertThrows(IllegalStateException.class, () -> new Dictionary(compiled.getPath()));
+            assertTrue(compiled.setLastModified(System.currentTimeMillis() + 60_000)); // newer than the word list
+            Dictionary dict = Dictionary.load(compiled.getPath(), "./wordlist.txt");
+            assertEquals(words.size(), dict.size());
+            assertTrue(dict.containsWord("ENZYME"));
+        }
+    }
+
     //BoggleGrid Test
+    @Test
+    void boardGenerator() {
+        BoardGenerator first = new BoardGenerator(DiceSet.BIG, 42L);
+        BoardGenerator second = new BoardGenerator(DiceSet.BIG, 42L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.next(25), second.next(25));
+        }
+
+        // with one letter per die, every board uses each die exactly once
+        DiceSet dice = new DiceSet("AAAAAA", "BBBBBB", "CCCCCC", "DDDDDD");
+        BoardGenerator generator = new BoardGenerator(dice, 7L);
+        char[] letters = new char[4];
+        for (int i = 0; i < 100; i++) {
+            generator.fill(letters);
+            char[] sorted = letters.clone();
+            Arrays.sort(sorted);
+            assertEquals("ABCD", new String(sorted));
+        }
+        String big = generator.next(8);
+        char[] sorted = big.toCharArray();
+        Arrays.sort(sorted);
+        assertEquals("AABBCCDD", new String(sorted));
+    }
+
+    @Test
+    void boardStream() {
+        List<String> first = BoardGenerator.boards(99L, 4, 6).limit(50).collect(java.util.stream.Collectors.toList());
+        List<String> second = BoardGenerator.boards(99L, 4, 6).limit(50).collect(java.util.stream.Collectors.toList());
+        assertEquals(first, second);
+        assertEquals(50, first.size());
+        for (String board : first) assertEquals(24, board.length());
+        assertNotEquals(first, BoardGenerator.boards(100L, 4, 6).limit(50).collect(java.util.stream.Collectors.toList()));
+    }
+
+    @Test
+    void boardSearch() {
+        Dictionary dict = new Dictionary("wordlist.txt");
+        BoardSearch search = new BoardSearch(dict, 4, 4);
+        search.setWords(60, 80);
+        search.setScore(90, Integer.MAX_VALUE);
+        search.setClimbSteps(50);
+        List<String> boards = search.search(3, 5L, 2);
+        assertEquals(3, boards.size());
+        BoggleSolver solver = new BoggleSolver(dict);
+        for (String board : boards) {
+            BoggleGrid grid = new BoggleGrid(4);
+            grid.initalizeBoard(board);
+            SolvedBoard solved = solver.solve(grid);
+            assertTrue(solved.size() >= 60 && solved.size() <= 80);
+            assertTrue(solved.maxScore() >= 90);
+        }
+
+        // no 4x4 board has 10000 words; the search gives up instead of running forever
+        search.setWords(10000, Integer.MAX_VALUE);
+        search.setMaxTries(500);
+        assertTrue(search.search(1, 5L, 2).isEmpty());
+        assertTrue(search.getTried() >= 500 && search.getTried() < 600);
+        search.setMaxTries(Long.MAX_VALUE);
+        search.setTimeLimit(200);
+        assertTrue(search.search(1, 5L, 2).isEmpty());
+    }
+
+    @Test
+    void gameStorageIndex() throws java.io.IOException {
+        java.io.File saves = java.io.File.createTempFile("gameSave", ".txt");
+        java.io.File index = new java.io.File(saves.getPath() + ".idx");
+        try {
+            storage.GameStorage storage = new storage.GameStorage(saves.getPath());
+            assertEquals(0, storage.numberOfSaves());
+            storage.save(Arrays.asList("[HOST]", "RHLDNHTGIPHSNMJO", "4x4"));
+            storage.save(Arrays.asList("[]", "GHOSXYTZ", "2x4"));
+            storage.save(Arrays.asList("[THIN, GHOST]", "RHLDNHTGIPHSNMJO", "4x4"));
+            assertEquals(3, storage.numberOfSaves());
+            storage.retrieve(2);
+            assertEquals(Arrays.asList("[]", "GHOSXYTZ", "2x4"), storage.getSaveData());
+            storage.retrieve(3);
+            assertEquals("[THIN, GHOST]", storage.getSaveData().get(0));
+
+            // a game added without the index, or a lost index, is picked up again
+            java.nio.file.Files.writeString(saves.toPath(), "* [] > ABCDEFGHIJKLMNOP",
+                    java.nio.file.StandardOpenOption.APPEND);
+            assertEquals(4, storage.numberOfSaves());
+            assertTrue(index.delete());
+            storage.retrieve(4);
+            assertEquals(Arrays.asList("[]", "ABCDEFGHIJKLMNOP"), storage.getSaveData());
+            storage.retrieve(1);
+            assertEquals("[HOST]", storage.getSaveData().get(0));
+        } finally {
+            saves.delete();
+            index.delete();
+        }
+    }
+
+    @Test
+    void scoreJournal() throws java.io.IOException {
+        java.io.File scores = java.io.File.createTempFile("scoreSave", ".bin");
+        scores.delete();
+        try {
+            storage.ScoreStorage storage = new storage.ScoreStorage(scores.getPath());
+            storage.save(Arrays.asList("[HOST]", "[THIN]", "1", "1", "1"));
+            storage.save(new storage.ScoreRecord(List.of(), List.of("GHOST", "A > B, C"), 0, 2, 2));
+            // scores wait to be written together, and are written once flushed
+            assertFalse(scores.exists());
+            storage.flush();
+            long written = scores.length();
+            List<storage.ScoreRecord> rounds = new ArrayList<>();
+            storage.forEach(rounds::add);
+            assertEquals(2, rounds.size());
+            assertEquals(List.of("HOST"), rounds.get(0).getPlayerWords());
+            assertEquals(List.of("GHOST", "A > B, C"), rounds.get(1).getComputerWords());
+            assertEquals(2, rounds.get(1).getRound());
+
+            // a full batch is written without a flush
+            for (int round = 0; round < 64; round++) {
+                new storage.ScoreStorage(scores.getPath()).save(new storage.ScoreRecord(List.of(), List.of(), 0, 0, round));
+            }
+            assertTrue(scores.length() > written);
+        } finally {
+            scores.delete();
+        }
+    }
+
+    @Test
+    void scoreMigration() throws java.io.IOException {
+        java.io.File legacy = java.io.File.createTempFile("scoreSave", ".txt");
+        java.io.File scores = new java.io.File(legacy.getPath() + ".bin");
+        try {
+            java.nio.file.Files.writeString(legacy.toPath(), "[THEFT] > [FETE, DELI] > 2 > 2 > 1\n"
+                    + "[] > [TROT] > 0 > 1 > 2\n");
+            storage.ScoreStorage storage = new storage.ScoreStorage(scores.getPath(), legacy.getPath());
+            storage.save(new storage.ScoreRecord(List.of("HOST"), List.of(), 1, 0, 3));
+            List<storage.ScoreRecord> rounds = new ArrayList<>();
+            storage.forEach(rounds::add);
+            assertEquals(3, rounds.size());
+            assertEquals(List.of("FETE", "DELI"), rounds.get(0).getComputerWords());
+            assertEquals(Arrays.asList("[]", "[TROT]", "0", "1", "2"), rounds.get(1).toFields());
+            assertEquals(1, rounds.get(2).getPlayerScore());
+
+            // the mapped scan reads counts without decoding words, and stops at a torn last record
+            java.nio.file.Files.write(scores.toPath(), new byte[]{0, 0, 0, 40, 0, 0}, java.nio.file.StandardOpenOption.APPEND);
+            int[] computerWords = {0, 0};
+            storage.scan(round -> {
+                computerWords[0] += round.getComputerWordCount();
+                computerWords[1]++;
+            });
+            assertEquals(3, computerWords[0]);
+            assertEquals(3, computerWords[1]);
+
+            // rounds saved after the torn record are written over it, so none of them is lost
+            storage.save(new storage.ScoreRecord(List.of("THIN"), List.of(), 1, 0, 4));
+            storage.save(new storage.ScoreRecord(List.of(), List.of("GHOST"), 0, 2, 5));
+            storage.flush();
+            rounds.clear();
+            storage.forEach(rounds::add);
+            assertEquals(5, rounds.size());
+            assertEquals(List.of("THIN"), rounds.get(3).getPlayerWords());
+            assertEquals(5, rounds.get(4).getRound());
+
+            // and the same when the torn record is left in the middle of the file by an earlier run
+            byte[] torn = {0, 0, 0, 40, 0, 0};
+            java.nio.file.Files.write(scores.toPath(), torn, java.nio.file.StandardOpenOption.APPEND);
+            storage.flush();
+            long before = scores.length();
+            storage.save(new storage.ScoreRecord(List.of(), List.of(), 0, 0, 6));
+            storage.flush();
+            rounds.clear();
+            storage.forEach(rounds::add);
+            assertEquals(6, rounds.size());
+            assertEquals(6, rounds.get(5).getRound());
+            assertTrue(scores.length() < before + 40);
+        } finally {
+            legacy.delete();
+            scores.delete();
+        }
+    }
+
+    @Test
+    void scoreReport() {
+        storage.ScoreReport report = new storage.ScoreReport(2);
+        report.add("[HOST, GHOST] > [THIN] > 3 > 1 > 1");
+        report.add("[] > [THIN, GHOST, HOST] > 0 > 4 > 2");
+        report.add("[HOST] > [] > 1 > 0 > 3");
+        report.add("[HOST, THIN] > [GHOST] > 2 > 2 > 4");
+        assertEquals(4, report.getRounds());
+        assertEquals(6, report.getPlayerScore());
+        assertEquals(7, report.getComputerScore());
+        assertEquals(1.5, report.getPlayerAverage(), 1e-9);
+        assertEquals(5 / 4.0, report.getPlayerWordsAverage(), 1e-9);
+        assertEquals(5 / 4.0, report.getComputerWordsAverage(), 1e-9);
+        assertEquals(-0.2, report.getTrend(), 1e-9);
+        assertEquals(3, report.getBestRounds().get(0).getPlayerScore());
+        assertEquals(2, report.getBestRounds().get(1).getPlayerScore());
+        assertEquals("HOST", report.getTopWords().get(0).getKey());
+        assertEquals(3, (int) report.getTopWords().get(0).getValue());
+        assertEquals(2, report.getTopWords().size());
+    }
+
+    @Test
+    void gameSession() {
+        GameSession session = new GameSession(new Dictionary("wordlist.txt"), new SolveCache(16), 1L);
+        assertEquals(GameSession.Guess.NO_ROUND, session.guess("GHOST"));
+        session.newRound(4, 4, "RHLDNHTGIPHSNMJO");
+        assertEquals(GameSession.Guess.TOO_SHORT, session.guess("HOT"));
+        assertEquals(GameSession.Guess.NOT_ON_BOARD, session.guess("BOAT"));
+        assertEquals(GameSession.Guess.ACCEPTED, session.guess("ghost"));
+        assertEquals(GameSession.Guess.ALREADY_FOUND, session.guess("GHOST"));
+        assertEquals(2, session.getPlayerScore());
+        assertEquals(new HashSet<>(Arrays.asList("HOST", "THIN")), new HashSet<>(session.endRound()));
+        assertEquals(2, session.getComputerScore());
+        assertEquals(1, session.getRounds());
+        assertEquals(16, session.newRound(4, 4).getLetters().length());
+        session.endRound();
+        assertEquals(2, session.getRounds());
+        assertEquals(2, session.getPlayerTotal());
+    }
+
+    @Test
+    void gameRoom() throws Exception {
+        BoggleGrid grid = new BoggleGrid(5);
+        grid.initalizeBoard("SERSPATGLINESERSOTELAMIRN");
+        SolvedBoard allWords = new BoggleSolver(new Dictionary("wordlist.txt")).solve(grid);
+        GameRoom room = new GameRoom(grid, allWords);
+        int first = room.join();
+        int second = room.join();
+        assertEquals(GameRoom.Claim.CLAIMED, room.claim(first, "siren"));
+        assertEquals(GameRoom.Claim.ALREADY_YOURS, room.claim(first, "SIREN"));
+        assertEquals(GameRoom.Claim.TAKEN, room.claim(second, "SIREN"));
+        assertEquals(GameRoom.Claim.NOT_ON_BOARD, room.claim(second, "GHOST"));
+        assertEquals(2, room.getScore(first));
+        assertEquals(0, room.getScore(second));
+
+        // a player who leaves gives up their words and their number
+        room.leave(first);
+        assertEquals(1, room.getPlayers());
+        assertEquals(0, room.getScore(first));
+        assertEquals(GameRoom.Claim.CLAIMED, room.claim(second, "SIREN"));
+        GameRoom left = room;
+        assertThrows(IllegalArgumentException.class, () -> left.claim(first, "SIREN"));
+        for (int i = 0; i < 1000; i++) {
+            int player = room.join();
+            assertEquals(first, player);
+            room.leave(player);
+        }
+        for (int i = 1; i < GameRoom.MAX_PLAYERS; i++) assertTrue(room.join() >= 0);
+        assertEquals(-1, room.join());
+
+        // every player races for every word; each word must go to exactly one of them
+        room = new GameRoom(grid, allWords);
+        int players = 32;
+        for (int i = 0; i < players; i++) room.join();
+        GameRoom shared = room;
+        java.util.concurrent.CyclicBarrier start = new java.util.concurrent.CyclicBarrier(players);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            int player = i;
+            List<String> words = new ArrayList<>();
+            for (int w = 0; w < allWords.size(); w++) words.add(allWords.getWord(w));
+            Collections.shuffle(words, new Random(player));
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                for (String word : words) shared.claim(player, word);
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        int total = 0;
+        int claimed = 0;
+        for (int i = 0; i < players; i++) {
+            int points = 0;
+            for (String word : room.getWords(i)) points += word.length() - 3;
+            assertEquals(points, room.getScore(i));
+            total += room.getScore(i);
+            claimed += room.getWords(i).size();
+        }
+        assertEquals(allWords.maxScore(), total);
+        assertEquals(allWords.size(), claimed);
+        assertTrue(room.getUnclaimedWords().isEmpty());
+        room.close();
+        assertEquals(GameRoom.Claim.CLOSED, room.claim(0, allWords.getWord(0)));
+        assertEquals(-1, room.join());
+
+        // the round ends while players are still claiming; each word goes to a player or to the computer
+        for (int round = 0; round < 20; round++) {
+            GameRoom racing = new GameRoom(grid, allWords);
+            for (int i = 0; i < 4; i++) racing.join();
+            for (int w = 0; w < 5; w++) racing.claim(3, allWords.getWord(w)); // player 3 may leave as the room closes
+            List<Thread> claimers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                int player = i;
+                Thread thread = new Thread(() -> {
+                    for (int w = 0; w < allWords.size(); w++) {
+                        GameRoom.Claim claim = racing.claim(player, allWords.getWord((w * 7 + player * 13) % allWords.size()));
+                        if (claim == GameRoom.Claim.CLOSED) break;
+                    }
+                });
+                claimers.add(thread);
+                thread.start();
+            }
+            if (round % 2 == 1) racing.leave(3);
+            List<String> computerWords = racing.close();
+            Set<String> taken = new HashSet<>(computerWords);
+            int points = 0;
+            for (String word : computerWords) points += word.length() - 3;
+            for (int i = 0; i < 4; i++) {
+                for (String word : racing.getWords(i)) assertTrue(taken.add(word), word + " scored twice");
+                points += racing.getClaimedScore(i);
+            }
+            assertEquals(allWords.size(), taken.size());
+            assertEquals(allWords.maxScore(), points);
+            for (Thread thread : claimers) thread.join();
+            assertEquals(computerWords, racing.close());
+            assertEquals(computerWords, racing.getUnclaimedWords());
+            for (int i = 0; i < 4; i++) assertEquals(racing.getClaimedScore(i), racing.getScore(i));
+        }
+    }
+
+    @Test
+    void wordIndex() {
+        BoggleGrid grid = new BoggleGrid(5);
+        grid.initalizeBoard("SERSPATGLINESERSOTELAMIRN");
+        SolvedBoard allWords = new BoggleSolver(new Dictionary("wordlist.txt")).solve(grid);
+        WordIndex index = new WordIndex(allWords);
+        assertEquals(allWords.size(), index.size());
+        for (int id = 0; id < allWords.size(); id++) {
+            assertEquals(id, index.idOf(allWords.getWord(id)));
+            assertEquals(id, index.idOf(allWords.getWord(id).toLowerCase()));
+            assertEquals(allWords.getWord(id).length() - 3, index.getPoints(id));
+        }
+        assertEquals(-1, index.idOf("GHOST"));
+        assertEquals(-1, index.idOf("SIRENZ"));
+        assertEquals(-1, index.idOf(""));
+        int siren = index.idOf("Siren");
+        assertEquals(WordIndex.UNCLAIMED, index.getClaimant(siren));
+        assertEquals(WordIndex.UNCLAIMED, index.claim(siren, 3));
+        assertEquals(3, index.claim(siren, 5));
+        assertEquals(3, index.getClaimant(siren));
+    }
+
+    @Test
+    void gameServer() throws Exception {
+        try (GameServer server = new GameServer(new Dictionary("wordlist.txt"), 0)) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (java.io.IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+            acceptor.start();
+            try (java.net.Socket socket = new java.net.Socket("localhost", server.getPort())) {
+                java.io.BufferedReader in = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
+                java.io.PrintWriter out = new java.io.PrintWriter(socket.getOutputStream(), true);
+                assertEquals("BOGGLE 1", in.readLine());
+                out.println("NEW 4x4 rhldnhtgiphsnmjo");
+                assertEquals("BOARD 4x4 RHLDNHTGIPHSNMJO", in.readLine());
+                out.println("GUESS ghost");
+                assertEquals("OK GHOST 2 2", in.readLine());
+                out.println("thin");
+                assertEquals("OK THIN 1 3", in.readLine());
+                out.println("THIN");
+                assertEquals("NO THIN ALREADY_FOUND", in.readLine());
+                out.println("END");
+                assertEquals("END 3 1 HOST", in.readLine());
+                out.println("DANCE now");
+                assertTrue(in.readLine().startsWith("ERR"));
+                out.println("NEW 4");
+                assertEquals("ERR bad size", in.readLine());
+                out.println("NEW 40000x40000");
+                assertEquals("ERR bad size", in.readLine());
+                out.println("JOIN lobby 0x5");
+                assertEquals("ERR bad size", in.readLine());
+                for (int i = 0; i < 3; i++) { // leaving frees the seat for the next player
+                    out.println("JOIN lobby");
+                    assertTrue(in.readLine().startsWith("ROOM lobby 0 BOARD 5x5 "));
+                    out.println("LEAVE");
+                    assertEquals("LEFT lobby", in.readLine());
+                }
+                out.println("QUIT");
+                assertEquals("BYE", in.readLine());
+            }
+        }
+    }
+
     @Test
     void setupBoard() {
         BoggleGrid grid = new BoggleGrid(10);
@@ -80,6 +698,24 @@ public class BoggleTests {
         }
     }
 
+    @Test
+    void findAllWords_rectangular() {
+        BoggleSolver solver = new BoggleSolver(new Dictionary("wordlist.txt"));
+        BoggleGrid wide = new BoggleGrid(2, 4);
+        wide.initalizeBoard("GHOSXYTZ");
+        BoggleGrid tall = new BoggleGrid(4, 2);
+        tall.initalizeBoard("GXHYOTSZ");
+        assertEquals(4, wide.numCols());
+        assertEquals('Y', wide.getCharAt(1, 1));
+
+        Map<String, ArrayList<Position>> wideWords = new HashMap<>();
+        Map<String, ArrayList<Position>> tallWords = new HashMap<>();
+        solver.findAllWords(wideWords, wide);
+        solver.findAllWords(tallWords, tall);
+        assertTrue(wideWords.containsKey("GHOST"));
+        assertEquals(wideWords.keySet(), tallWords.keySet());
+    }
+
 //    //BoggleStats Test
 //    @Test
 //    void endRoundTest() {
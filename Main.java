@@ -1,14 +1,60 @@
+import boggle.BatchSolver;
+import boggle.BoardGenerator;
+import boggle.BoardSearch;
 import boggle.BoggleGame;
+import boggle.GameServer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.Arrays;
 
 /**
  * The Main class for the first Assignment in CSC207, Fall 2022
  */
 public class Main {
     /**
-    * Main method. 
+    * Main method.
+    * With no arguments, plays an interactive game on the console.
+    * "--batch [file]" solves the boards listed in file (or read from stdin) instead.
+    * "--generate [count] [seed] [rowsxcols]" prints count random boards rolled from seed,
+    * in the form --batch reads, so the same workload can be replayed.
+    * "--search count [--words min[-max]] [--score min[-max]] [--size rowsxcols] [--seed n] [--climb steps]
+    * [--threads n] [--max-tries n] [--timeout seconds]" prints count boards with that many words and
+    * points (see BoardSearch), and exits with status 1 if it gives up before finding them all.
+    * "--server [port]" serves games to any number of players over a socket (see GameServer).
     * @param args command line arguments.
     **/
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BufferedReader in = new BufferedReader(args.length > 1 ? new FileReader(args[1]) : new InputStreamReader(System.in));
+            BatchSolver.runAndReport(in, System.out);
+            in.close();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--generate")) {
+            int count = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+            String shape = args.length > 3 ? args[3].toLowerCase() : "5x5";
+            int rows = Integer.parseInt(shape.split("x")[0]);
+            int cols = Integer.parseInt(shape.split("x")[1]);
+            String prefix = rows == cols ? "" : shape + ":";
+            PrintStream out = new PrintStream(new BufferedOutputStream(System.out), false);
+            BoardGenerator.boards(seed, rows, cols).limit(count).forEach(letters -> out.println(prefix + letters));
+            out.flush();
+            return;
+        }
+        if (args.length > 1 && args[0].equals("--search")) {
+            if (!BoardSearch.runAndReport(Arrays.copyOfRange(args, 1, args.length), System.out)) System.exit(1);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--server")) {
+            GameServer.runAndReport(args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT);
+            return;
+        }
         BoggleGame b = new BoggleGame();
         b.giveInstructions();
         b.playGame();
@@ -0,0 +1,216 @@
+package bench;
+
+import boggle.BoardGenerator;
+import boggle.BoggleGame;
+import boggle.BoggleGrid;
+import boggle.BoggleSolver;
+import boggle.DiceSet;
+import boggle.Dictionary;
+import boggle.SolvedBoard;
+import boggle.WordIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmarks for the dictionary, the solver, checking guesses and board generation, so every change to them can
+ * be measured and compared over time.
+ *
+ * Each benchmark is warmed up, then timed over several fixed-length iterations,
+ * and reported as the mean time per operation with its spread across iterations.
+ * Results of every operation are kept in a sink so the JIT cannot remove the work.
+ *
+ * Usage: java bench.BoggleBenchmark [name filter]
+ */
+public class BoggleBenchmark {
+
+    /**
+     * boards used by the solve benchmarks; fixed so runs are comparable
+     */
+    private static final String[] SMALL_BOARDS = {"TNAEIRSOTLEDNAPS", "RHLDNHTGIPHSNMJO", "EIOSRTNEAHLCSTED", "UQTHINERSSAOLCEB"};
+    private static final String[] BIG_BOARDS = {"EARTSNOILDECPMHUTSERAGNOI", "SERSPATGLINESERSOTELAMIRN",
+            "EROLTASOBYTXCIEZXHCAVMOQM", "TSENILAROGDEMCHPUBSIETRAN"};
+
+    /**
+     * number of warm-up and measured iterations
+     */
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASURED_ITERATIONS = 5;
+    /**
+     * length of each iteration in nanoseconds
+     */
+    private static final long ITERATION_NANOS = 500_000_000L;
+
+    /**
+     * blackhole for benchmark results
+     */
+    private static volatile Object sink;
+
+    /**
+     * only benchmarks whose name contains this are run
+     */
+    private static String filter = "";
+    /**
+     * where results are printed (System.out is silenced while dictionaries load)
+     */
+    private static final PrintStream report = System.out;
+
+    /**
+     * Main method.
+     * @param args optionally, a filter on benchmark names
+     **/
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) filter = args[0];
+        report.printf("%-32s %14s %12s%n", "Benchmark", "ns/op", "+/- ns/op");
+
+        // the Dictionary constructor prints a banner, which would swamp the load benchmarks
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        bench("dictionary.load.text", () -> new Dictionary(Dictionary.WORD_LIST));
+        String compiled = Files.createTempFile("wordlist", ".dict").toString();
+        new Dictionary(Dictionary.WORD_LIST).writeCompiled(compiled);
+        bench("dictionary.load.compiled", () -> new Dictionary(compiled));
+        Files.delete(Paths.get(compiled));
+        System.setOut(report);
+
+        Dictionary dict = Dictionary.getInstance();
+        String[][] workloads = lookupWorkloads(dict);
+        benchLookups("dictionary.containsWord.hit", workloads[0], dict::containsWord);
+        benchLookups("dictionary.containsWord.miss", workloads[1], dict::containsWord);
+        benchLookups("dictionary.isPrefix.hit", workloads[2], dict::isPrefix);
+        benchLookups("dictionary.isPrefix.miss", workloads[3], dict::isPrefix);
+
+        BoggleSolver solver = new BoggleSolver(dict);
+        benchSolve("solve.4x4", solver, SMALL_BOARDS, false);
+        benchSolve("solve.5x5", solver, BIG_BOARDS, false);
+        benchSolve("solve.5x5.parallel", solver, BIG_BOARDS, true);
+
+        BoggleGrid round = new BoggleGrid(5);
+        round.initalizeBoard(BIG_BOARDS[1]);
+        SolvedBoard roundWords = solver.solve(round);
+        WordIndex index = new WordIndex(roundWords);
+        String[] guesses = new String[roundWords.size()];
+        for (int i = 0; i < guesses.length; i++) guesses[i] = roundWords.getWord(i);
+        benchLookups("round.solvedBoard.indexOf", guesses, word -> roundWords.indexOf(word) >= 0);
+        benchLookups("round.wordIndex.idOf", guesses, word -> index.idOf(word) >= 0);
+
+        BoggleGame game = new BoggleGame();
+        Method randomizeLetters = BoggleGame.class.getDeclaredMethod("randomizeLetters", int.class);
+        randomizeLetters.setAccessible(true);
+        bench("randomizeLetters.4x4", () -> invoke(randomizeLetters, game, 4));
+        bench("randomizeLetters.5x5", () -> invoke(randomizeLetters, game, 5));
+
+        BoardGenerator generator = new BoardGenerator(DiceSet.BIG, 13L);
+        char[] board = new char[25];
+        bench("generator.fill.5x5", () -> {
+            generator.fill(board);
+            return board;
+        });
+    }
+
+    /*
+     * Times op and prints one result line.
+     */
+    private static void bench(String name, Supplier<Object> op) {
+        if (!name.contains(filter)) return;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) iteration(op);
+        double[] results = new double[MEASURED_ITERATIONS];
+        double mean = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            results[i] = iteration(op);
+            mean += results[i] / MEASURED_ITERATIONS;
+        }
+        double variance = 0;
+        for (double result : results) variance += (result - mean) * (result - mean) / MEASURED_ITERATIONS;
+        report.printf("%-32s %14.1f %12.1f%n", name, mean, Math.sqrt(variance));
+    }
+
+    /*
+     * Runs op repeatedly for one iteration.
+     *
+     * @return double the mean time per call in nanoseconds
+     */
+    private static double iteration(Supplier<Object> op) {
+        long ops = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink = op.get();
+            ops++;
+        } while ((elapsed = System.nanoTime() - start) < ITERATION_NANOS);
+        return (double) elapsed / ops;
+    }
+
+    /*
+     * Times one lookup per call, cycling through the workload.
+     */
+    private static void benchLookups(String name, String[] workload, java.util.function.Predicate<String> lookup) {
+        int[] next = {0};
+        bench(name, () -> {
+            int i = next[0]++;
+            if (next[0] == workload.length) next[0] = 0;
+            return lookup.test(workload[i]);
+        });
+    }
+
+    /*
+     * Times one full solve per call, cycling through the boards.
+     */
+    private static void benchSolve(String name, BoggleSolver solver, String[] boards, boolean parallel) {
+        BoggleGrid[] grids = new BoggleGrid[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            grids[i] = new BoggleGrid((int) Math.sqrt(boards[i].length()));
+            grids[i].initalizeBoard(boards[i]);
+        }
+        int[] next = {0};
+        bench(name, () -> {
+            BoggleGrid grid = grids[next[0]++ % grids.length];
+            return parallel ? solver.solveParallel(grid) : solver.solve(grid);
+        });
+    }
+
+    /*
+     * Builds seeded hit and miss workloads for containsWord and isPrefix from the word list.
+     *
+     * @return String[][] word hits, word misses, prefix hits, prefix misses
+     */
+    private static String[][] lookupWorkloads(Dictionary dict) throws IOException {
+        List<String> words = new ArrayList<String>();
+        for (String line : Files.readAllLines(Paths.get(Dictionary.WORD_LIST))) {
+            if (line.strip().matches("[a-z]+")) words.add(line.strip());
+        }
+        Random random = new Random(207);
+        int size = 4096;
+        String[][] workloads = new String[4][size];
+        for (int i = 0; i < size; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            workloads[0][i] = word;
+            workloads[2][i] = word.substring(0, 1 + random.nextInt(word.length()));
+            String miss;
+            do {
+                miss = word.substring(0, word.length() - 1) + (char) ('a' + random.nextInt(26)) + "q";
+            } while (dict.containsWord(miss));
+            workloads[1][i] = miss;
+            do {
+                miss = word.substring(0, 1 + random.nextInt(word.length())) + "xq";
+            } while (dict.isPrefix(miss));
+            workloads[3][i] = miss;
+        }
+        return workloads;
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
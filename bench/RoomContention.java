@@ -0,0 +1,92 @@
+package bench;
+
+import boggle.BoggleGrid;
+import boggle.BoggleSolver;
+import boggle.Dictionary;
+import boggle.GameRoom;
+import boggle.SolvedBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+
+/**
+ * Times word claims in a GameRoom when every player races for every word on the same
+ * board at once, the worst case for real-time multiplayer, and checks that each round
+ * still adds up: every word claimed by exactly one player, and the players' scores
+ * summing to the board's maximum score.
+ *
+ * Usage: java bench.RoomContention [players] [rounds]
+ */
+public class RoomContention {
+
+    /**
+     * a rich 6x6 board, so there are many words to race for
+     */
+    private static final String BOARD = "SERSPATGLINESERSOTELAMIRNDEASTELREAB";
+
+    /**
+     * Main method.
+     * @param args optionally, the number of players (default 48) and of rounds (default 2000)
+     **/
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        BoggleGrid grid = new BoggleGrid(6);
+        grid.initalizeBoard(BOARD);
+        SolvedBoard allWords = new BoggleSolver(Dictionary.getInstance()).solve(grid);
+
+        // every player claims every word, each in its own order
+        String[][] orders = new String[players][];
+        for (int p = 0; p < players; p++) {
+            List<String> words = new ArrayList<String>();
+            for (int i = 0; i < allWords.size(); i++) words.add(allWords.getWord(i).toLowerCase());
+            Collections.shuffle(words, new Random(p));
+            orders[p] = words.toArray(new String[0]);
+        }
+
+        GameRoom[] room = new GameRoom[1];
+        CyclicBarrier barrier = new CyclicBarrier(players + 1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < players; p++) {
+            int player = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int r = 0; r < rounds; r++) {
+                        barrier.await(); // the round is ready
+                        GameRoom current = room[0];
+                        for (String word : orders[player]) current.claim(player, word);
+                        barrier.await(); // the round is over
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long nanos = 0;
+        for (int r = 0; r < rounds; r++) {
+            room[0] = new GameRoom(grid, allWords);
+            for (int p = 0; p < players; p++) room[0].join();
+            long start = System.nanoTime();
+            barrier.await();
+            barrier.await();
+            nanos += System.nanoTime() - start;
+            int total = 0;
+            for (int p = 0; p < players; p++) total += room[0].getScore(p);
+            if (total != allWords.maxScore() || !room[0].getUnclaimedWords().isEmpty()) {
+                throw new IllegalStateException("Round " + r + " scored " + total + " of " + allWords.maxScore());
+            }
+        }
+        for (Thread thread : threads) thread.join();
+
+        long claims = (long) players * rounds * allWords.size();
+        System.out.printf("%d players x %d rounds x %d words: %.1f ns/claim, %.0f claims/s, %.1f us/round%n",
+                players, rounds, allWords.size(), (double) nanos / claims, claims / (nanos / 1e9), nanos / 1e3 / rounds);
+    }
+}
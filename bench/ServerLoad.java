@@ -0,0 +1,128 @@
+package bench;
+
+import boggle.Dictionary;
+import boggle.GameServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Plays many games at once against an in-process GameServer and reports the latency of
+ * every command the clients send, so the cost of a session under load can be compared
+ * between builds.
+ *
+ * Each client opens its own connection and plays the given number of rounds on random
+ * 5x5 boards, guessing a few words per round (taken from the words the computer found
+ * in the round before) and ending each round.
+ *
+ * Usage: java bench.ServerLoad [sessions] [rounds]
+ */
+public class ServerLoad {
+
+    /**
+     * guesses each client makes per round
+     */
+    private static final int GUESSES = 8;
+
+    /**
+     * Main method.
+     * @param args optionally, the number of concurrent sessions (default 1000) and the
+     *             number of rounds each one plays (default 5)
+     **/
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        try (GameServer server = new GameServer(Dictionary.getInstance(), 0)) {
+            Thread acceptor = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+            }, "acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            ExecutorService clients = GameServer.newThreadPerTaskExecutor();
+            List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+            long start = System.nanoTime();
+            for (int i = 0; i < sessions; i++) {
+                results.add(clients.submit(() -> play(server.getPort(), rounds)));
+            }
+            List<long[]> latencies = new ArrayList<long[]>();
+            int total = 0;
+            for (Future<long[]> result : results) {
+                long[] times = result.get();
+                latencies.add(times);
+                total += times.length;
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            clients.shutdown();
+
+            long[] all = new long[total];
+            int n = 0;
+            for (long[] times : latencies) {
+                System.arraycopy(times, 0, all, n, times.length);
+                n += times.length;
+            }
+            Arrays.sort(all);
+            System.out.printf("%d sessions x %d rounds: %d commands in %.3f s (%.0f commands/s)%n",
+                    sessions, rounds, total, seconds, total / seconds);
+            System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                    percentile(all, 0.50) / 1e3, percentile(all, 0.90) / 1e3,
+                    percentile(all, 0.99) / 1e3, all[all.length - 1] / 1e3);
+        }
+    }
+
+    /*
+     * Plays one session.
+     *
+     * @return long[] the time each command took to be answered, in nanoseconds
+     */
+    private static long[] play(int port, int rounds) throws IOException {
+        long[] times = new long[rounds * (GUESSES + 2) + 1];
+        int n = 0;
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            in.readLine(); // greeting
+            String[] lastWords = new String[0];
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                out.println("NEW 5x5");
+                in.readLine();
+                times[n++] = System.nanoTime() - start;
+                for (int g = 0; g < GUESSES; g++) {
+                    String word = lastWords.length > 0 ? lastWords[g % lastWords.length] : "BOGGLE";
+                    start = System.nanoTime();
+                    out.println("GUESS " + word);
+                    in.readLine();
+                    times[n++] = System.nanoTime() - start;
+                }
+                start = System.nanoTime();
+                out.println("END");
+                String end = in.readLine();
+                times[n++] = System.nanoTime() - start;
+                String[] fields = end.split(" ");
+                lastWords = fields.length > 3 ? fields[3].split(",") : new String[0];
+            }
+            long start = System.nanoTime();
+            out.println("QUIT");
+            in.readLine();
+            times[n++] = System.nanoTime() - start;
+        }
+        return times;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+    }
+}
@@ -0,0 +1,113 @@
+package bench;
+
+import boggle.BatchSolver;
+import boggle.BoardGenerator;
+import boggle.BoggleGrid;
+import boggle.BoggleSolver;
+import boggle.BoggleStats;
+import boggle.Dictionary;
+import boggle.SolvedBoard;
+import storage.ScoreRecord;
+import storage.ScoreStorage;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replays a fixed, seeded workload of random boards through the solver, the game
+ * statistics and score storage, and reports the throughput of each, so the same
+ * workload can be compared between builds.
+ *
+ * Boards come from BoardGenerator.boards, so a given seed, count and grid shape always
+ * produce the same boards. Each stage also prints a checksum of its results; if two
+ * builds print different checksums for the same workload they disagree on the answers,
+ * and their timings should not be compared.
+ *
+ * Usage: java bench.WorkloadReplay [seed] [boards] [rowsxcols]
+ */
+public class WorkloadReplay {
+
+    /**
+     * Main method.
+     * @param args optionally, the seed (default 1), the number of boards (default 10000)
+     *             and the grid shape (default 5x5)
+     **/
+    public static void main(String[] args) throws Exception {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 1L;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        String shape = args.length > 2 ? args[2].toLowerCase() : "5x5";
+        int rows = Integer.parseInt(shape.split("x")[0]);
+        int cols = Integer.parseInt(shape.split("x")[1]);
+        PrintStream report = System.out;
+        report.printf("Workload: seed %d, %d boards, %s%n", seed, count, shape);
+
+        long start = System.nanoTime();
+        List<String> boards = BoardGenerator.boards(seed, rows, cols).limit(count).collect(Collectors.toList());
+        report(report, "generate", count, start, boards.hashCode());
+
+        Dictionary dict = Dictionary.getInstance();
+        BoggleSolver solver = new BoggleSolver(dict);
+        List<SolvedBoard> solved = new ArrayList<SolvedBoard>(count);
+        start = System.nanoTime();
+        long words = 0;
+        for (String letters : boards) {
+            BoggleGrid grid = new BoggleGrid(rows, cols);
+            grid.initalizeBoard(letters);
+            SolvedBoard board = solver.solve(grid);
+            solved.add(board);
+            words += board.size();
+        }
+        report(report, "solve", count, start, words);
+
+        String prefix = rows == cols ? "" : shape + ":";
+        start = System.nanoTime();
+        int[] lines = new int[1];
+        PrintStream results = new PrintStream(OutputStream.nullOutputStream()) {
+            @Override
+            public void println(String line) {
+                lines[0] += line.hashCode();
+            }
+        };
+        new BatchSolver(dict, Runtime.getRuntime().availableProcessors())
+                .run(boards.stream().map(letters -> prefix + letters), results);
+        report(report, "batch", count, start, lines[0]);
+
+        // the computer plays every board alone, so the stats never need a game
+        BoggleStats stats = new BoggleStats(null);
+        start = System.nanoTime();
+        for (SolvedBoard board : solved) {
+            for (int i = 0; i < board.size(); i++) {
+                stats.addWord(board.getWord(i), BoggleStats.Player.Computer);
+            }
+            stats.endRound();
+        }
+        report(report, "stats", count, start, stats.getRound());
+
+        File scores = File.createTempFile("scoreReplay", ".bin");
+        ScoreStorage storage = new ScoreStorage(scores.getPath());
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        start = System.nanoTime();
+        for (int round = 0; round < solved.size(); round++) {
+            SolvedBoard board = solved.get(round);
+            List<String> found = new ArrayList<String>(board.size());
+            for (int i = 0; i < board.size(); i++) found.add(board.getWord(i));
+            storage.save(new ScoreRecord(new ArrayList<String>(), found, 0, board.maxScore(), round + 1));
+        }
+        storage.flush();
+        System.setOut(report);
+        report(report, "storage.save", count, start, scores.length());
+        scores.delete();
+    }
+
+    /*
+     * Prints one stage's throughput and checksum.
+     */
+    private static void report(PrintStream report, String stage, int boards, long start, long checksum) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report.printf("%-14s %12.1f boards/s   checksum %d%n", stage, boards / Math.max(seconds, 1e-9), checksum);
+    }
+}
@@ -0,0 +1,154 @@
+package boggle;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Solves many boards without any console interaction, for offline analysis.
+ *
+ * Boards are read one per line: the letters left to right, top to bottom, optionally
+ * preceded by the grid shape for non-square boards (e.g. "4x6:" followed by 24 letters).
+ * Blank lines and lines starting with # are skipped. Boards are solved in parallel against one shared
+ * Dictionary, and written out in input order as they finish, one line per board:
+ * letters, max score, number of words and the comma separated word list, separated by tabs.
+ * Recently solved boards, and their rotations and mirror images, are answered from a SolveCache.
+ */
+public class BatchSolver {
+
+    /**
+     * dictionary of legal words
+     */
+    private final Dictionary boggleDict;
+    /**
+     * solver shared by every worker (it holds no per-solve state)
+     */
+    private final BoggleSolver solver;
+    /**
+     * boards solved recently in this batch
+     */
+    private final SolveCache solveCache = new SolveCache(4096);
+    /**
+     * number of worker threads
+     */
+    private final int threads;
+
+    /**
+     * BatchSolver constructor
+     *
+     * @param boggleDict A dictionary of legal words
+     * @param threads number of boards to solve at the same time
+     */
+    public BatchSolver(Dictionary boggleDict, int threads) {
+        this.boggleDict = boggleDict;
+        this.solver = new BoggleSolver(boggleDict);
+        this.threads = threads;
+    }
+
+    /*
+     * Solves every board read from in and writes one result line per board to out.
+     * At most a few boards per thread are in flight at once, so any number of boards
+     * can be streamed through in constant memory.
+     *
+     * @param in the boards, one per line
+     * @param out where results are written
+     * @return int the number of boards solved
+     */
+    public int run(BufferedReader in, PrintStream out) throws IOException {
+        try {
+            return run(in.lines(), out);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /*
+     * Solves every board in a stream (e.g. from BoardGenerator.boards) and writes one
+     * result line per board to out, in the same way as reading them one per line.
+     *
+     * @param boards the boards, in the same form as input lines
+     * @param out where results are written
+     * @return int the number of boards solved
+     */
+    public int run(Stream<String> boards, PrintStream out) {
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<Future<String>>();
+        int count = 0;
+        try {
+            Iterator<String> lines = boards.iterator();
+            while (lines.hasNext()) {
+                String letters = lines.next().strip().toUpperCase();
+                if (letters.isEmpty() || letters.startsWith("#")) continue;
+                pending.add(pool.submit(() -> solve(letters)));
+                count++;
+                if (pending.size() >= 4 * this.threads) out.println(pending.poll().get());
+            }
+            while (!pending.isEmpty()) out.println(pending.poll().get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return count;
+    }
+
+    /*
+     * Solves a single board.
+     *
+     * @param board the board's letters, left to right, top to bottom, optionally preceded by "rowsxcols:"
+     * @return String the result line for the board
+     */
+    String solve(String board) {
+        String letters = board.substring(board.indexOf(':') + 1);
+        int rows, cols;
+        if (board.matches("\\d+X\\d+:.*")) {
+            rows = Integer.parseInt(board.substring(0, board.indexOf('X')));
+            cols = Integer.parseInt(board.substring(board.indexOf('X') + 1, board.indexOf(':')));
+        } else {
+            rows = cols = (int) Math.round(Math.sqrt(letters.length()));
+        }
+        if (rows * cols != letters.length()) {
+            return board + "\tERROR\t" + letters.length() + " letters do not fill a " + rows + "x" + cols + " board";
+        }
+        BoggleGrid grid = new BoggleGrid(rows, cols);
+        grid.initalizeBoard(letters);
+        SolvedBoard solved = this.solveCache.get(this.boggleDict, grid);
+        if (solved == null) {
+            solved = this.solver.solve(grid);
+            this.solveCache.put(this.boggleDict, grid, solved);
+        }
+
+        String[] words = new String[solved.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = solved.getWord(i);
+        }
+        Arrays.sort(words);
+        return board + "\t" + solved.maxScore() + "\t" + solved.size() + "\t" + String.join(",", words);
+    }
+
+    /*
+     * Runs a batch and reports throughput on System.err, so it never mixes with the results.
+     *
+     * @param in the boards, one per line
+     * @param out where results are written
+     */
+    public static void runAndReport(BufferedReader in, PrintStream out) throws IOException {
+        BatchSolver batch = new BatchSolver(Dictionary.getInstance(), Runtime.getRuntime().availableProcessors());
+        long start = System.nanoTime();
+        int boards = batch.run(in, out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Solved %d boards in %.3f s (%.1f boards/s)%n", boards, seconds, boards / Math.max(seconds, 1e-9));
+    }
+}
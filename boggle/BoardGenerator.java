@@ -0,0 +1,161 @@
+package boggle;
+
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Rolls random boards from a DiceSet, quickly enough for large batch simulations.
+ *
+ * The dice are kept as an array of die numbers and shuffled in place with a
+ * Fisher-Yates shuffle, one die per grid position, and every die's faces sit in one
+ * char array, so filling a board only writes into the char array it is given.
+ * Each generator has its own SplittableRandom: a generator made with a seed always
+ * rolls the same boards in the same order, and split() hands out independent
+ * generators for other threads. A BoardGenerator is not safe to share between threads.
+ * boards() wraps a seeded generator in a lazy Stream, for replayable workloads.
+ */
+public class BoardGenerator {
+
+    /**
+     * number of faces on a die
+     */
+    private static final int FACES = 6;
+
+    /**
+     * the faces of die d are faces[d * FACES] up to faces[d * FACES + FACES - 1]
+     */
+    private final char[] faces;
+    /**
+     * the dice, by number, in the order the last shuffle left them
+     */
+    private final int[] order;
+    /**
+     * source of randomness for this generator only
+     */
+    private final SplittableRandom random;
+
+    /**
+     * BoardGenerator constructor, with a random seed
+     *
+     * @param dice the dice to roll
+     */
+    public BoardGenerator(DiceSet dice) {
+        this(dice, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * BoardGenerator constructor
+     *
+     * @param dice the dice to roll
+     * @param seed the seed; generators with the same dice and seed roll the same boards
+     */
+    public BoardGenerator(DiceSet dice, long seed) {
+        this(faces(dice), new SplittableRandom(seed));
+    }
+
+    private BoardGenerator(char[] faces, SplittableRandom random) {
+        this.faces = faces;
+        this.order = new int[faces.length / FACES];
+        for (int die = 0; die < this.order.length; die++) {
+            this.order[die] = die;
+        }
+        this.random = random;
+    }
+
+    private static char[] faces(DiceSet dice) {
+        char[] faces = new char[dice.size() * FACES];
+        for (int die = 0; die < dice.size(); die++) {
+            dice.getDie(die).getChars(0, FACES, faces, die * FACES);
+        }
+        return faces;
+    }
+
+    /*
+     * @return BoardGenerator a generator for the same dice, with its own random
+     *         numbers split off from this one's, for use on another thread
+     */
+    public BoardGenerator split() {
+        return new BoardGenerator(this.faces, this.random.split());
+    }
+
+    /*
+     * Fills letters with a random board, left to right, top to bottom. Each position
+     * gets a different die, chosen at random, showing a random face. Boards with more
+     * positions than there are dice start a new shuffle of the whole set whenever it runs out.
+     *
+     * @param letters one entry per grid position, overwritten with the board's letters
+     */
+    public void fill(char[] letters) {
+        fill(letters, null);
+    }
+
+    /*
+     * Same as fill(letters), and also records which die landed on each position.
+     *
+     * @param letters one entry per grid position, overwritten with the board's letters
+     * @param diceUsed one entry per grid position, overwritten with the number of the die
+     *                 (as in DiceSet.getDie) at that position, or null if not needed
+     */
+    public void fill(char[] letters, int[] diceUsed) {
+        int dice = this.order.length;
+        int next = 0;
+        for (int cell = 0; cell < letters.length; cell++) {
+            if (next == dice) next = 0;
+            // one random number picks both the die and the face it shows; scaling 32 random
+            // bits by multiplication avoids a division (the bias is below one in a million)
+            int roll = (int) (((this.random.nextLong() >>> 32) * ((dice - next) * FACES)) >>> 32);
+            int pick = next + roll / FACES;
+            int die = this.order[pick];
+            this.order[pick] = this.order[next];
+            this.order[next] = die;
+            letters[cell] = this.faces[die * FACES + roll % FACES];
+            if (diceUsed != null) diceUsed[cell] = die;
+            next++;
+        }
+    }
+
+    /*
+     * @param cells the number of grid positions
+     * @return String a random board, left to right, top to bottom (see fill)
+     */
+    public String next(int cells) {
+        char[] letters = new char[cells];
+        fill(letters);
+        return new String(letters);
+    }
+
+    /*
+     * A lazy, endless stream of random boards for a rows x cols grid, rolled with the
+     * standard dice for its size (see DiceSet.forBoard). The same seed always gives the
+     * same boards in the same order, so a workload can be replayed exactly; use limit()
+     * to take a fixed number of boards.
+     *
+     * @return Stream<String> the boards' letters, left to right, top to bottom
+     */
+    public static Stream<String> boards(long seed, int rows, int cols) {
+        return boards(DiceSet.forBoard(rows, cols), seed, rows, cols);
+    }
+
+    /*
+     * Same as boards(seed, rows, cols), rolled with the given dice.
+     *
+     * @return Stream<String> the boards' letters, left to right, top to bottom
+     */
+    public static Stream<String> boards(DiceSet dice, long seed, int rows, int cols) {
+        BoardGenerator generator = new BoardGenerator(dice, seed);
+        int cells = rows * cols;
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                action.accept(generator.next(cells));
+                return true;
+            }
+        }, false);
+    }
+}
@@ -0,0 +1,316 @@
+package boggle;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches for boards whose number of words and maximum score fall within given
+ * bounds, e.g. to hand out boards by difficulty or to pick rich boards for a tournament.
+ *
+ * Every worker thread rolls random boards from the dice and solves each one. A board
+ * inside the bounds is kept; otherwise, if hill climbing is switched on, the worker makes
+ * up to that many small changes to the board (re-rolling one die, or swapping two dice),
+ * keeping each change that brings the board no further from the bounds, before giving up
+ * on it and rolling a new one.
+ *
+ * Bounds that few or no boards meet could keep the workers busy forever, so a search
+ * also stops once it has solved a set number of boards or run for a set time, and then
+ * returns the boards it found so far.
+ */
+public class BoardSearch {
+
+    /**
+     * boards a search from the command line solves before giving up, unless told otherwise
+     */
+    public static final long DEFAULT_MAX_TRIES = 100_000;
+
+    /**
+     * solver shared by every worker (it holds no per-solve state)
+     */
+    private final BoggleSolver solver;
+    /**
+     * number of rows on the boards searched
+     */
+    private final int rows;
+    /**
+     * number of columns on the boards searched
+     */
+    private final int cols;
+    /**
+     * dice the boards are rolled with
+     */
+    private DiceSet dice;
+    /**
+     * bounds on the number of words on a board, inclusive
+     */
+    private int minWords = 0, maxWords = Integer.MAX_VALUE;
+    /**
+     * bounds on the score for finding every word on a board, inclusive
+     */
+    private int minScore = 0, maxScore = Integer.MAX_VALUE;
+    /**
+     * number of changes tried on a board that is out of bounds before rolling a new one
+     */
+    private int climbSteps = 0;
+    /**
+     * most boards a search solves before giving up
+     */
+    private long maxTries = Long.MAX_VALUE;
+    /**
+     * most milliseconds a search runs before giving up, or 0 for no limit
+     */
+    private long timeLimit = 0;
+    /**
+     * number of boards rolled and changes tried by the last search
+     */
+    private final AtomicLong tried = new AtomicLong();
+
+    /**
+     * BoardSearch constructor
+     *
+     * @param boggleDict A dictionary of legal words
+     * @param rows number of rows on the boards to search
+     * @param cols number of columns on the boards to search
+     */
+    public BoardSearch(Dictionary boggleDict, int rows, int cols) {
+        this.solver = new BoggleSolver(boggleDict);
+        this.rows = rows;
+        this.cols = cols;
+        this.dice = DiceSet.forBoard(rows, cols);
+    }
+
+    /*
+     * Roll boards with the given dice instead of the standard set for the grid size.
+     */
+    public void setDice(DiceSet dice) {
+        this.dice = dice;
+    }
+
+    /*
+     * Only keep boards with between min and max words (inclusive).
+     */
+    public void setWords(int min, int max) {
+        this.minWords = min;
+        this.maxWords = max;
+    }
+
+    /*
+     * Only keep boards whose words are worth between min and max points in total (inclusive).
+     */
+    public void setScore(int min, int max) {
+        this.minScore = min;
+        this.maxScore = max;
+    }
+
+    /*
+     * Try up to steps changes on each board that is out of bounds; 0 only samples.
+     */
+    public void setClimbSteps(int steps) {
+        this.climbSteps = steps;
+    }
+
+    /*
+     * Give up a search after solving tries boards, even if fewer boards than wanted were found.
+     */
+    public void setMaxTries(long tries) {
+        this.maxTries = tries;
+    }
+
+    /*
+     * Give up a search after millis milliseconds, even if fewer boards than wanted were found;
+     * 0 means no time limit.
+     */
+    public void setTimeLimit(long millis) {
+        this.timeLimit = millis;
+    }
+
+    /*
+     * @return long the number of boards solved by the last search
+     */
+    public long getTried() {
+        return this.tried.get();
+    }
+
+    /*
+     * Finds wanted different boards within the bounds, searching on several threads.
+     * Which boards are found depends on seed, but also on how the threads happen to
+     * be scheduled, so only a search on one thread is exactly repeatable.
+     *
+     * @param wanted the number of boards to find
+     * @param seed seeds the random boards
+     * @param threads number of boards to search from at the same time
+     * @return List<String> the letters of each board found, left to right, top to bottom;
+     *         fewer than wanted if the search hit its limit on tries or time first
+     */
+    public List<String> search(int wanted, long seed, int threads) {
+        Map<String, Boolean> found = new ConcurrentHashMap<String, Boolean>();
+        List<String> boards = Collections.synchronizedList(new ArrayList<String>());
+        this.tried.set(0);
+        long deadline = this.timeLimit > 0 ? System.nanoTime() + this.timeLimit * 1_000_000 : Long.MAX_VALUE;
+        SplittableRandom seeds = new SplittableRandom(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<Future<?>>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = seeds.split();
+                BoardGenerator generator = new BoardGenerator(this.dice, random.nextLong());
+                workers.add(pool.submit(() -> {
+                    while (boards.size() < wanted && this.tried.get() < this.maxTries
+                            && (deadline == Long.MAX_VALUE || System.nanoTime() < deadline)
+                            && !Thread.currentThread().isInterrupted()) {
+                        String board = next(generator, random);
+                        if (board != null && found.putIfAbsent(board, Boolean.TRUE) == null) boards.add(board);
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) worker.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        synchronized (boards) {
+            return new ArrayList<String>(boards.subList(0, Math.min(wanted, boards.size())));
+        }
+    }
+
+    /*
+     * Rolls one board and, if needed, climbs towards the bounds from it.
+     *
+     * @param generator rolls the board; each worker has its own
+     * @param random chooses the changes to try; each worker has its own
+     * @return String the board's letters if it ended up within the bounds, otherwise null
+     */
+    private String next(BoardGenerator generator, SplittableRandom random) {
+        int cells = this.rows * this.cols;
+        char[] letters = new char[cells];
+        int[] diceUsed = new int[cells];
+        generator.fill(letters, diceUsed);
+        int distance = distance(letters);
+        for (int step = 0; step < this.climbSteps && distance > 0 && this.tried.get() < this.maxTries; step++) {
+            int cell = random.nextInt(cells);
+            int other = random.nextInt(cells);
+            char letter = letters[cell];
+            char otherLetter = letters[other];
+            boolean swap = random.nextBoolean();
+            if (swap) {
+                letters[cell] = otherLetter;
+                letters[other] = letter;
+            } else {
+                letters[cell] = this.dice.getDie(diceUsed[cell]).charAt(random.nextInt(6));
+            }
+            int changed = distance(letters);
+            if (changed <= distance) {
+                distance = changed;
+                if (swap) {
+                    int die = diceUsed[cell];
+                    diceUsed[cell] = diceUsed[other];
+                    diceUsed[other] = die;
+                }
+            } else {
+                letters[cell] = letter;
+                letters[other] = otherLetter;
+            }
+        }
+        return distance == 0 ? new String(letters) : null;
+    }
+
+    /*
+     * Solves a board and measures how far it is from the bounds.
+     *
+     * @return int how many words and points the board is short of (or over) the bounds, 0 if within them
+     */
+    private int distance(char[] letters) {
+        BoggleGrid grid = new BoggleGrid(this.rows, this.cols);
+        grid.initalizeBoard(new String(letters));
+        SolvedBoard solved = this.solver.solve(grid);
+        this.tried.incrementAndGet();
+        int words = solved.size();
+        int score = solved.maxScore();
+        return Math.max(0, this.minWords - words) + Math.max(0, words - this.maxWords)
+                + Math.max(0, this.minScore - score) + Math.max(0, score - this.maxScore);
+    }
+
+    /*
+     * Runs a search from command line options and prints each board found to out, in the
+     * form batch mode reads, with progress reported on System.err. Options are
+     * count, then any of --words min[-max], --score min[-max], --size rowsxcols,
+     * --seed n, --climb steps, --threads n, --max-tries n (DEFAULT_MAX_TRIES if left out)
+     * and --timeout seconds (no time limit if left out).
+     *
+     * @param args the options
+     * @param out where boards are written
+     * @return boolean true if count boards were found, false if the search gave up first
+     */
+    public static boolean runAndReport(String[] args, PrintStream out) {
+        int wanted = Integer.parseInt(args[0]);
+        String shape = "5x5";
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int[] words = {0, Integer.MAX_VALUE};
+        int[] score = {0, Integer.MAX_VALUE};
+        int climb = 0;
+        long maxTries = DEFAULT_MAX_TRIES;
+        double timeout = 0;
+        for (int i = 1; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--words": words = range(value); break;
+                case "--score": score = range(value); break;
+                case "--size": shape = value.toLowerCase(); break;
+                case "--seed": seed = Long.parseLong(value); break;
+                case "--climb": climb = Integer.parseInt(value); break;
+                case "--threads": threads = Integer.parseInt(value); break;
+                case "--max-tries": maxTries = Long.parseLong(value); break;
+                case "--timeout": timeout = Double.parseDouble(value); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        int rows = Integer.parseInt(shape.split("x")[0]);
+        int cols = Integer.parseInt(shape.split("x")[1]);
+
+        BoardSearch search = new BoardSearch(Dictionary.getInstance(), rows, cols);
+        search.setWords(words[0], words[1]);
+        search.setScore(score[0], score[1]);
+        search.setClimbSteps(climb);
+        search.setMaxTries(maxTries);
+        search.setTimeLimit((long) (timeout * 1000));
+        long start = System.nanoTime();
+        List<String> boards = search.search(wanted, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String prefix = rows == cols ? "" : shape + ":";
+        for (String board : boards) {
+            out.println(prefix + board);
+        }
+        out.flush();
+        System.err.printf("Found %d boards in %.3f s (%.1f boards/s) after solving %d%n",
+                boards.size(), seconds, boards.size() / Math.max(seconds, 1e-9), search.getTried());
+        if (boards.size() < wanted) {
+            System.err.printf("Gave up with %d of %d boards found: the bounds may be too tight "
+                    + "(raise --max-tries or --timeout, or widen --words and --score)%n", boards.size(), wanted);
+            return false;
+        }
+        return true;
+    }
+
+    /*
+     * @return int[] the bounds given as "min" or "min-max"
+     */
+    private static int[] range(String value) {
+        String[] bounds = value.split("-");
+        return new int[]{Integer.parseInt(bounds[0]),
+                bounds.length > 1 ? Integer.parseInt(bounds[1]) : Integer.MAX_VALUE};
+    }
+}
@@ -0,0 +1,118 @@
+package boggle;
+
+/**
+ * Puts a board into a canonical orientation, so that boards which are rotations or
+ * reflections of each other (and so contain exactly the same words) can share one solve.
+ *
+ * A square board has 8 orientations (4 rotations, each optionally mirrored); other
+ * boards have the 4 that keep their shape. The canonical orientation is the one whose
+ * letters, read left to right and top to bottom, come first alphabetically.
+ * Word paths found on the canonical board can be mapped back onto the original board,
+ * and the other way around.
+ */
+public class BoardSymmetry {
+
+    /**
+     * the board in its canonical orientation
+     */
+    private final BoggleGrid canonical;
+    /**
+     * toCanonical[c] is the canonical cell that original cell c moves to
+     */
+    private final int[] toCanonical;
+    /**
+     * toOriginal[c] is the original cell that canonical cell c came from
+     */
+    private final int[] toOriginal;
+
+    private BoardSymmetry(BoggleGrid canonical, int[] toCanonical) {
+        this.canonical = canonical;
+        this.toCanonical = toCanonical;
+        this.toOriginal = new int[toCanonical.length];
+        for (int cell = 0; cell < toCanonical.length; cell++) {
+            this.toOriginal[toCanonical[cell]] = cell;
+        }
+    }
+
+    /*
+     * Finds the canonical orientation of a board.
+     *
+     * @param boggleGrid a boggle grid, with a letter at each position on the grid
+     * @return BoardSymmetry the canonical board and the mapping to and from it
+     */
+    public static BoardSymmetry of(BoggleGrid boggleGrid) {
+        int rows = boggleGrid.numRows();
+        int cols = boggleGrid.numCols();
+        int transforms = rows == cols ? 8 : 4;
+        char[] best = null;
+        int[] bestCells = null;
+        for (int t = 0; t < transforms; t++) {
+            char[] letters = new char[rows * cols];
+            int[] cells = new int[rows * cols];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int cell = transform(t, row, col, rows, cols);
+                    cells[row * cols + col] = cell;
+                    letters[cell] = Character.toUpperCase(boggleGrid.getCharAt(row, col));
+                }
+            }
+            if (best == null || compare(letters, best) < 0) {
+                best = letters;
+                bestCells = cells;
+            }
+        }
+        BoggleGrid canonical = new BoggleGrid(rows, cols);
+        canonical.initalizeBoard(new String(best));
+        return new BoardSymmetry(canonical, bestCells);
+    }
+
+    /*
+     * Moves (row, col) by one of the symmetries of a rows x cols board. Transforms 0-3 keep
+     * the board's shape (identity, half turn, left-right and top-bottom mirrors); 4-7 are
+     * the quarter turns and diagonal mirrors, which only apply to square boards.
+     *
+     * @return int the cell (row * cols + col) the position moves to
+     */
+    private static int transform(int t, int row, int col, int rows, int cols) {
+        int lastRow = rows - 1;
+        int lastCol = cols - 1;
+        switch (t) {
+            case 0: return row * cols + col;
+            case 1: return (lastRow - row) * cols + (lastCol - col);
+            case 2: return row * cols + (lastCol - col);
+            case 3: return (lastRow - row) * cols + col;
+            case 4: return col * cols + (lastRow - row);
+            case 5: return (lastCol - col) * cols + row;
+            case 6: return col * cols + row;
+            default: return (lastCol - col) * cols + (lastRow - row);
+        }
+    }
+
+    private static int compare(char[] a, char[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return a[i] - b[i];
+        }
+        return 0;
+    }
+
+    /*
+     * @return BoggleGrid the board in its canonical orientation
+     */
+    public BoggleGrid getCanonicalGrid() {
+        return this.canonical;
+    }
+
+    /*
+     * @return SolvedBoard the words solved on the original board, moved onto the canonical board
+     */
+    public SolvedBoard toCanonical(SolvedBoard solved) {
+        return solved.moveCells(this.toCanonical);
+    }
+
+    /*
+     * @return SolvedBoard the words solved on the canonical board, moved back onto the original board
+     */
+    public SolvedBoard toOriginal(SolvedBoard canonicalSolved) {
+        return canonicalSolved.moveCells(this.toOriginal);
+    }
+}
@@ -1,16 +1,27 @@
 package boggle;
 
 import storage.GameStorage;
+import storage.ScoreRecord;
+import storage.ScoreStorage;
 import storage.Storage;
 import storage.StorageCreator;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * The BoggleGame class for the first Assignment in CSC207, Fall 2022
  */
 public class BoggleGame {
 
+    /**
+     * who found a word, in the round's WordIndex
+     */
+    private static final int HUMAN = 0, COMPUTER = 1;
+
     /**
      * scanner used to interact with the user via console
      */ 
@@ -20,18 +31,18 @@ public class BoggleGame {
      */ 
     private BoggleStats gameStats;
     /**
-     * dice used to randomize letter assignments for a small grid
+     * dice used to randomize letter assignments, or null to use the standard set for each grid size
      */ 
-    private final String[] dice_small_grid= //dice specifications, for small and large grids
-            {"AAEEGN", "ABBJOO", "ACHOPS", "AFFKPS", "AOOTTW", "CIMOTU", "DEILRX", "DELRVY",
-                    "DISTTY", "EEGHNW", "EEINSU", "EHRTVW", "EIOSST", "ELRTTY", "HIMNQU", "HLNNRZ"};
+    private DiceSet dice;
     /**
-     * dice used to randomize letter assignments for a big grid
+     * boards solved in this or earlier games, so repeated boards are not solved again
      */ 
-    private final String[] dice_big_grid =
-            {"AAAFRS", "AAEEEE", "AAFIRS", "ADENNN", "AEEEEM", "AEEGMU", "AEGMNN", "AFIRSY",
-                    "BJKQXZ", "CCNSTW", "CEIILT", "CEILPT", "CEIPST", "DDLNOR", "DDHNOT", "DHHLOR",
-                    "DHLNOR", "EIIITT", "EMOTTT", "ENSSSU", "FIPRSY", "GORRVW", "HIPRRY", "NOOTUW", "OOOTTU"};
+    private SolveCache solveCache;
+    /**
+     * the next round's random board, rolled and being solved in the background while the
+     * user reads the last round's summary, or null
+     */
+    private PendingBoard nextBoard;
 
 
     /**
@@ -53,6 +64,16 @@ public class BoggleGame {
     public BoggleGame() {
         this.scanner = new Scanner(System.in);
         this.gameStats = new BoggleStats(this);
+        this.solveCache = SolveCache.load(SolveCache.CACHE_FILE, 1000);
+    }
+
+    /*
+     * Use the given dice for every grid, instead of the standard set for the grid's size
+     *
+     * @param dice the dice to roll, or null to go back to the standard sets
+     */
+    public void setDice(DiceSet dice) {
+        this.dice = dice;
     }
 
     /* 
@@ -78,7 +99,8 @@ public class BoggleGame {
      * It will loop until the user indicates they are done playing.
      */
     public void playGame(){
-        int boardSize = 0;
+        int rows = 0;
+        int cols = 0;
         //get player count
         System.out.println("Enter the number of players you wish to play with.");
         String choicePlayers = scanner.nextLine();
@@ -104,7 +126,8 @@ public class BoggleGame {
 
         while(true){
             System.out.println("Enter 1 to play on a big (5x5) grid; Enter 2 to play on a small (4x4) one; " +
-                    "Enter 3 to continue from a saved singleplayer game: ");
+                    "Enter 3 to continue from a saved singleplayer game; Enter 4 to play on a super big (6x6) grid; " +
+                    "Enter 5 to choose your own grid size: ");
             String choiceGrid = scanner.nextLine();
 
             Storage game = new StorageCreator().getStorage("game");
@@ -112,17 +135,30 @@ public class BoggleGame {
 
             //get grid size preference
             if(choiceGrid == "") break; //end game if user inputs nothing
-            while((!choiceGrid.equals("1") && !choiceGrid.equals("2") && !choiceGrid.equals("3")) ||
+            while(!choiceGrid.matches("[1-5]") ||
                     (choiceGrid.equals("3") && (numberOfSaves == 0 || this.numPlayers != 1))){
                 if (choiceGrid.equals("3") && (numberOfSaves == 0 || this.numPlayers != 1)){System.out.println("You have 0 saved games, try again...");}
                 else {System.out.println("Please try again.");}
                 System.out.println("Enter 1 to play on a big (5x5) grid; Enter 2 to play on a small (4x4) one; " +
-                        "Enter 3 to continue from a saved singleplayer game: ");
+                        "Enter 3 to continue from a saved singleplayer game; Enter 4 to play on a super big (6x6) grid; " +
+                        "Enter 5 to choose your own grid size: ");
                 choiceGrid = scanner.nextLine();
             }
 
-            if(choiceGrid.equals("1")) boardSize = 5;
-            else if (choiceGrid.equals("2")) boardSize = 4;
+            if(choiceGrid.equals("1")) rows = cols = 5;
+            else if (choiceGrid.equals("2")) rows = cols = 4;
+            else if (choiceGrid.equals("4")) rows = cols = 6;
+            else if (choiceGrid.equals("5")) {
+                System.out.println("Enter the grid size as rows x columns (e.g. 7x9): ");
+                String choiceSize = scanner.nextLine().toLowerCase().replace(" ", "");
+                while (!choiceSize.matches("[1-9][0-9]?x[1-9][0-9]?")) {
+                    System.out.println("Please try again.");
+                    System.out.println("Enter the grid size as rows x columns (e.g. 7x9): ");
+                    choiceSize = scanner.nextLine().toLowerCase().replace(" ", "");
+                }
+                rows = Integer.parseInt(choiceSize.split("x")[0]);
+                cols = Integer.parseInt(choiceSize.split("x")[1]);
+            }
             else {
                 String userOutput = "There are " + numberOfSaves + " saved games, pick which game you want [Enter" +
                         " 1 - " + numberOfSaves + "]: ";
@@ -132,7 +168,13 @@ public class BoggleGame {
                     System.out.println("Please try again." + "\n" + userOutput);
                     choiceGame = Integer.parseInt(scanner.nextLine());
                 }
-                game.retrieve(choiceGame); game.display(); boardSize = (int)Math.sqrt(game.getSaveData().get(1).length());
+                game.retrieve(choiceGame); game.display();
+                if (game.getSaveData().size() > 2) { //saves record the grid shape as rows x columns
+                    rows = Integer.parseInt(game.getSaveData().get(2).split("x")[0]);
+                    cols = Integer.parseInt(game.getSaveData().get(2).split("x")[1]);
+                } else { //older saves are always square
+                    rows = cols = (int)Math.sqrt(game.getSaveData().get(1).length());
+                }
             }
 
             if (!choiceGrid.equals("3")) {
@@ -148,28 +190,32 @@ public class BoggleGame {
                 }
 
                 if (choiceLetters.equals("1")) {
-                    playRound(boardSize, randomizeLetters(boardSize));
+                    PendingBoard next = takeNextBoard(rows, cols);
+                    if (next != null) playRound(next);
+                    else playRound(rows, cols, randomizeLetters(rows, cols));
                 } else {
-                    System.out.println("Input a list of " + boardSize * boardSize + " letters:");
+                    System.out.println("Input a list of " + rows * cols + " letters:");
                     choiceLetters = scanner.nextLine();
-                    while (!(choiceLetters.length() == boardSize * boardSize)) {
+                    while (!(choiceLetters.length() == rows * cols)) {
                         System.out.println("Sorry, bad input. Please try again.");
-                        System.out.println("Input a list of " + boardSize * boardSize + " letters:");
+                        System.out.println("Input a list of " + rows * cols + " letters:");
                         choiceLetters = scanner.nextLine();
                     }
-                    playRound(boardSize, choiceLetters.toUpperCase());
+                    discardNextBoard();
+                    playRound(rows, cols, choiceLetters.toUpperCase());
                 }
             } else{
                 gameStats.setPlayerWords(new HashSet<String>(Arrays.asList(game.getSaveData().get(0).split(", "))));
-                playRound(boardSize, game.getSaveData().get(1));
+                discardNextBoard();
+                playRound(rows, cols, game.getSaveData().get(1));
             }
 
             //round is over! So, store the statistics, and end the round.
             this.gameStats.summarizeRound();
-            ((new StorageCreator()).getStorage("score")).save(Arrays.asList(gameStats.getPlayerWords().toString(),
-                    gameStats.getComputerWords().toString(), Integer.toString(gameStats.getScore()),
-                    Integer.toString(gameStats.getCScore()), Integer.toString(gameStats.getRound() + 1)));
+            ((ScoreStorage) new StorageCreator().getStorage("score")).save(new ScoreRecord(gameStats.getPlayerWords(),
+                    gameStats.getComputerWords(), gameStats.getScore(), gameStats.getCScore(), gameStats.getRound() + 1));
             this.gameStats.endRound();
+            prepareNextBoard(rows, cols); //while the user decides what to do next
 
             //Shall we repeat?
             System.out.println("Play again? Type 'Y' or 'N'");
@@ -189,13 +235,18 @@ public class BoggleGame {
             String choicePeformance = scanner.nextLine().toUpperCase();
             if (choicePeformance.equals("Y")){
                 Storage score = new StorageCreator().getStorage("score");
-                score.retrieve(1);
+                score.retrieve(5); //summary, with the 5 best rounds and most found words
             }
             if(choiceRepeat == "" || choiceRepeat.equals("N")) break; //end game if user inputs nothing
         }
 
         //we are done with the game! So, summarize all the play that has transpired and exit.
+        discardNextBoard();
         this.gameStats.summarizeGame();
+        if (((ScoreStorage) new StorageCreator().getStorage("score")).flush()) {
+            System.out.println("Successfully Saved Scores!");
+        }
+        this.solveCache.save(SolveCache.CACHE_FILE);
         System.out.println("\nThanks for playing!");
     }
 
@@ -206,25 +257,111 @@ public class BoggleGame {
      * passed by reference from here to many other functions.
      */
     public void playRound(int size, String letters){
+        playRound(size, size, letters);
+    }
+
+    /* 
+     * Play a round of Boggle on a grid with the given number of rows and columns.
+     */
+    public void playRound(int rows, int cols, String letters){
         //step 1. initialize the grid
-        BoggleGrid grid = new BoggleGrid(size);
+        BoggleGrid grid = new BoggleGrid(rows, cols);
         grid.initalizeBoard(letters);
-        //step 2. initialize the dictionary of legal words
-        Dictionary boggleDict = new Dictionary("wordlist.txt"); //you may have to change the path to the wordlist, depending on where you place it.
-        //step 3. find all legal words on the board, given the dictionary and grid arrangement.
-        Map<String, ArrayList<Position>> allWords = new HashMap<String, ArrayList<Position>>();
-        findAllWords(allWords, boggleDict, grid);
-        //step 4. allow the user to try to find some words on the grid
-        humanMove(grid, allWords);
-        //step 5. allow the computer to identify remaining words
-        computerMove(allWords);
+        //step 2. start finding all legal words on the board, given the dictionary and grid arrangement
+        //(unless this board has been solved before). The search runs in the background and
+        //reports each word as soon as it is found, so the user can start straight away.
+        playRound(startSolving(grid));
+    }
+
+    /*
+     * Play a round of Boggle on a board whose words are being found in the background.
+     */
+    private void playRound(PendingBoard board){
+        //step 3. allow the user to try to find some words on the grid
+        humanMove(board.grid, board.solving, board.found);
+        //step 4. allow the computer to identify remaining words, once the search is over
+        SolvedBoard allWords = board.solving.join();
+        if (!board.cached) this.solveCache.put(Dictionary.getInstance(), board.grid, allWords);
+        computerMove(index(allWords));
+    }
+
+    /*
+     * Starts finding all legal words on the grid on the common ForkJoinPool, unless the
+     * board has been solved before.
+     *
+     * @param grid A boggle grid, with a letter at each position on the grid
+     * @return PendingBoard the board, with the search for its words
+     */
+    private PendingBoard startSolving(BoggleGrid grid) {
+        Dictionary boggleDict = Dictionary.getInstance(); //loaded once, then shared by every round
+        SolvedBoard cached = this.solveCache.get(boggleDict, grid);
+        PendingBoard board = new PendingBoard(grid, cached != null);
+        board.solving = cached != null ? CompletableFuture.completedFuture(cached)
+                : CompletableFuture.supplyAsync(() -> solve(boggleDict, grid, word -> {
+                    if (board.cancelled) throw new CancellationException(); //stop the search
+                    board.found.add(word);
+                }));
+        return board;
+    }
+
+    /*
+     * Rolls the next round's board, assuming it will be random and the same size as the
+     * last one, and starts solving it in the background.
+     */
+    private void prepareNextBoard(int rows, int cols) {
+        discardNextBoard();
+        BoggleGrid grid = new BoggleGrid(rows, cols);
+        grid.initalizeBoard(randomizeLetters(rows, cols));
+        this.nextBoard = startSolving(grid);
+    }
+
+    /*
+     * @return PendingBoard the board rolled for the next round if it has the given size,
+     * otherwise null (and that board is thrown away)
+     */
+    private PendingBoard takeNextBoard(int rows, int cols) {
+        PendingBoard next = this.nextBoard;
+        if (next == null || next.grid.numRows() != rows || next.grid.numCols() != cols
+                || next.solving.isCompletedExceptionally()) {
+            discardNextBoard();
+            return null;
+        }
+        this.nextBoard = null;
+        return next;
+    }
+
+    /*
+     * Throws away the board rolled for the next round, stopping its search, e.g. when the
+     * user picks their own letters or a saved game instead.
+     */
+    private void discardNextBoard() {
+        if (this.nextBoard != null) {
+            this.nextBoard.cancel();
+            this.nextBoard = null;
+        }
+    }
+
+    /*
+     * Indexes the words on the board for checking guesses (see WordIndex). Words the
+     * user has already found, including those from a saved game, are claimed for them.
+     *
+     * @param allWords All legal words that can be found, given the boggleGrid grid letters
+     * @return WordIndex the words, and who found them
+     */
+    private WordIndex index(SolvedBoard allWords) {
+        WordIndex words = new WordIndex(allWords);
+        for (String word : gameStats.getPlayerWords()) {
+            int id = words.idOf(word);
+            if (id >= 0) words.claim(id, HUMAN);
+        }
+        return words;
     }
 
     /*
      * This method should return a String of letters (length 16 or 25 depending on the size of the grid).
      * There will be one letter per grid position, and they will be organized left to right,
      * top to bottom. A strategy to make this string of letters is as follows:
-     * -- Assign a one of the dice to each grid position (i.e. dice_big_grid or dice_small_grid)
+     * -- Assign a one of the dice to each grid position (i.e. DiceSet.BIG or DiceSet.SMALL)
      * -- "Shuffle" the positions of the dice to randomize the grid positions they are assigned to
      * -- Randomly select one of the letters on the given die at each grid position to determine
      *    the letter at the given position
@@ -232,199 +369,56 @@ public class BoggleGame {
      * @return String a String of random letters (length 16 or 25 depending on the size of the grid)
      */
     private String randomizeLetters(int size){
-        String letters = "";
-        if (size == 4) {
-            List<String> dices = new LinkedList<String>(Arrays.asList(this.dice_small_grid));
-            for (int i = 0; i < 16; i++) {
-                int randDice = (int)(Math.random() * (dices.size()));
-                int randLetter = (int)(Math.random() * (6));
-                letters += dices.get(randDice).charAt(randLetter);
-                dices.remove(randDice);
-            }
-        } else if (size == 5) {
-            List<String> dices = new LinkedList<String>(Arrays.asList(this.dice_big_grid));
-            for (int i = 0; i < 25; i++) {
-                int randDice = (int)(Math.random() * (dices.size()));
-                int randLetter = (int)(Math.random() * (6));
-                letters += dices.get(randDice).charAt(randLetter);
-                dices.remove(randDice);
-            }
-        } return letters;
+        return randomizeLetters(size, size);
+    }
+
+    /*
+     * Returns a String of random letters for a grid of any shape, rolled with the
+     * configured dice, or else the standard set for the grid's size (see DiceSet.forBoard).
+     *
+     * @return String a String of random letters, one per grid position
+     */
+    private String randomizeLetters(int rows, int cols){
+        DiceSet diceSet = this.dice != null ? this.dice : DiceSet.forBoard(rows, cols);
+        return diceSet.roll(rows * cols);
     }
 
     /* 
-     * This should be a recursive function that finds all valid words on the boggle board.
+     * Finds all valid words on the boggle board.
      * Every word should be valid (i.e. in the boggleDict) and of length 4 or more.
-     * Words that are found should be entered into the allWords HashMap.  This HashMap
-     * will be consulted as we play the game.
+     * The words found, with their paths, will be consulted as we play the game.
      *
-     * Note that this function will be a recursive function.  You may want to write
-     * a wrapper for your recursion. Note that every legal word on the Boggle grid will correspond to
-     * a list of grid positions on the board, and that the Position class can be used to represent these
-     * positions. The strategy you will likely want to use when you write your recursion is as follows:
-     * -- At every Position on the grid:
-     * ---- add the Position of that point to a list of stored positions
-     * ---- if your list of stored positions is >= 4, add the corresponding word to the allWords Map
-     * ---- recursively search for valid, adjacent grid Positions to add to your list of stored positions.
-     * ---- Note that a valid Position to add to your list will be one that is either horizontal, diagonal, or
-     *      vertically touching the current Position
-     * ---- Note also that a valid Position to add to your list will be one that, in conjunction with those
-     *      Positions that precede it, form a legal PREFIX to a word in the Dictionary (this is important!)
-     * ---- Use the "isPrefix" method in the Dictionary class to help you out here!!
-     * ---- Positions that already exist in your list of stored positions will also be invalid.
-     * ---- You'll be finished when you have checked EVERY possible list of Positions on the board, to see
-     *      if they can be used to form a valid word in the dictionary.
-     * ---- Food for thought: If there are N Positions on the grid, how many possible lists of positions
-     *      might we need to evaluate?
+     * The search itself lives in BoggleSolver, which walks the grid and the dictionary
+     * trie together, so a path is only extended while it is still a legal PREFIX.
+     * Grids bigger than 5x5 are searched in parallel.
      *
-     * @param allWords A mutable list of all legal words that can be found, given the boggleGrid grid letters
      * @param boggleDict A dictionary of legal words
      * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     * @return SolvedBoard all legal words that can be found, given the boggleGrid grid letters
      */
-    private void findAllWords(Map<String,ArrayList<Position>> allWords, Dictionary boggleDict, BoggleGrid boggleGrid) {
-        ArrayList<ArrayList<Position>> wordList = new ArrayList<ArrayList<Position>>();
-        List<Position> positions = new ArrayList<>();
-        for (int i = 0; i < boggleGrid.numRows(); i++){
-            for (int j = 0; j < boggleGrid.numCols(); j++){
-                positions.add(new Position(i, j));
-                wordList.addAll(findWords(positions, boggleDict, boggleGrid));
-                positions.clear();
-            }
-        }
-
-        for (int i = 0; i < wordList.size(); i++) {
-            ArrayList<Position> word = wordList.get(i);
-            if (word.size() >= 4) {
-                allWords.put(positionToWord(word, boggleGrid), word);
-            }
-        }
+    private SolvedBoard solve(Dictionary boggleDict, BoggleGrid boggleGrid) {
+        return solve(boggleDict, boggleGrid, null);
     }
 
-    private ArrayList<ArrayList<Position>> findWords(List<Position> positions, Dictionary boggleDict, BoggleGrid boggleGrid) {
-        ArrayList foundWords = new ArrayList<>();
-
-        int newRow = positions.get(positions.size() - 1).getRow() -1;
-        int newCol = positions.get(positions.size() - 1).getCol();
-        Position newPosition = new Position(newRow, newCol); // N
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow() +1;
-        newCol = positions.get(positions.size() - 1).getCol();
-        newPosition = new Position(newRow, newCol); // S
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow();
-        newCol = positions.get(positions.size() - 1).getCol() +1;
-        newPosition = new Position(newRow, newCol); // E
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow();
-        newCol = positions.get(positions.size() - 1).getCol() -1;
-        newPosition = new Position(newRow, newCol); // W
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow() -1;
-        newCol = positions.get(positions.size() - 1).getCol() +1;
-        newPosition = new Position(newRow, newCol); // NE
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow() -1;
-        newCol = positions.get(positions.size() - 1).getCol() -1;
-        newPosition = new Position(newRow, newCol); // NW
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow() +1;
-        newCol = positions.get(positions.size() - 1).getCol() +1;
-        newPosition = new Position(newRow, newCol); // SE
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-
-        newRow = positions.get(positions.size() - 1).getRow() +1;
-        newCol = positions.get(positions.size() - 1).getCol() -1;
-        newPosition = new Position(newRow, newCol); // SW
-        if (differentPosition(positions, newPosition) && newRow >= 0 && newCol >= 0 && newRow < boggleGrid.numRows() && newCol < boggleGrid.numCols()) {
-            List<Position> test = new ArrayList<Position>(positions); test.add(newPosition);
-            if (boggleDict.containsWord(positionToWord(test, boggleGrid))) {
-                foundWords.add(test);
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            } else if (boggleDict.isPrefix(positionToWord(test, boggleGrid))) {
-                foundWords.addAll(findWords(test, boggleDict, boggleGrid));
-            }
-        }
-        return foundWords;
-    }
-
-    private String positionToWord(List<Position> positions, BoggleGrid boggleGrid) {
-        String word = "";
-        for (int i = 0; i < positions.size(); i++) {
-            word += boggleGrid.getCharAt(positions.get(i).getRow(), positions.get(i).getCol());
-        } return word;
+    /*
+     * Same as solve, but passes each word to onWord as soon as it is found (from the
+     * solver's threads, on grids bigger than 5x5).
+     */
+    private SolvedBoard solve(Dictionary boggleDict, BoggleGrid boggleGrid, Consumer<String> onWord) {
+        BoggleSolver solver = new BoggleSolver(boggleDict);
+        if (boggleGrid.numRows() * boggleGrid.numCols() > 25) return solver.solveParallel(boggleGrid, onWord);
+        return solver.solve(boggleGrid, onWord);
     }
 
-    private boolean differentPosition(List<Position> positions, Position newPosition) {
-        for (int i = 0; i < positions.size(); i++) {
-            Position currentPosition = positions.get(i);
-            int currentRow = currentPosition.getRow();
-            int currentCol = currentPosition.getCol();
-            int newRow = newPosition.getRow();
-            int newCol = newPosition.getCol();
-            if (currentRow == newRow && currentCol == newCol) {return false;}
-        } return true;
+    /* 
+     * Finds all valid words on the boggle board, and enters them into the allWords HashMap.
+     *
+     * @param allWords A mutable list of all legal words that can be found, given the boggleGrid grid letters
+     * @param boggleDict A dictionary of legal words
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     */
+    private void findAllWords(Map<String,ArrayList<Position>> allWords, Dictionary boggleDict, BoggleGrid boggleGrid) {
+        allWords.putAll(solve(boggleDict, boggleGrid).toMap());
     }
 
     /* 
@@ -433,10 +427,15 @@ public class BoggleGame {
      * the player's score (in boggleStats).
      * End the turn once the user hits return (with no word).
      *
+     * Words are checked against those the search has found so far; a word it has not
+     * reached yet (or an invalid one) waits for the search to finish.
+     *
      * @param board The boggle board
-     * @param allWords A mutable list of all legal words that can be found, given the boggleGrid grid letters
+     * @param solving The search for all legal words on the board
+     * @param found The words the search has found so far
      */
-    private void humanMove(BoggleGrid board, Map<String,ArrayList<Position>> allWords){
+    private void humanMove(BoggleGrid board, CompletableFuture<SolvedBoard> solving, Set<String> found){
+        WordIndex words = null; //built once the search is over
         System.out.println("It's your turn to find some words " + this.playerList.name + "!" );
         boolean notDone = true;
         while(notDone) {
@@ -455,17 +454,28 @@ public class BoggleGame {
             //step 3. Check to see if it is valid (note validity checks should be case-insensitive)
             if (foundWord.equals("S")){
                 String playerWords = gameStats.getPlayerWords().toString();
-                List<String> saveData = Arrays.asList(playerWords.substring(1, playerWords.length() -1), board.toString());
+                List<String> saveData = Arrays.asList(playerWords.substring(1, playerWords.length() -1), board.toString(),
+                        board.numRows() + "x" + board.numCols());
                 ((new StorageCreator()).getStorage("game")).save(saveData);
             } else if (foundWord.equals("PASS")) {
                 this.playerList = this.playerList.getNext();
             } else if (foundWord.equals("")) {notDone = false;}
-            else if (foundWord.length() >= 4 && allWords.containsKey(foundWord) &&
-                    gameStats.getPlayerWords().contains(foundWord) == false) {
-                gameStats.addWord(foundWord, BoggleStats.Player.Human);
-                this.playerList = this.playerList.getNext();
-                System.out.println("Nice, You Scored " + (foundWord.length() - 3) + " Point(s)!");
-            } else {System.out.println("Invalid Input '" + foundWord + "', Try Again!");}
+            else {
+                if (words == null && solving.isDone()) words = index(solving.join());
+                boolean valid;
+                if (words == null && foundWord.length() >= 4 && found.contains(foundWord)) {
+                    valid = gameStats.getPlayerWords().contains(foundWord) == false; //the search has already found it
+                } else {
+                    if (words == null) words = index(solving.join()); //wait for the rest of the search
+                    int id = foundWord.length() >= 4 ? words.idOf(foundWord) : -1;
+                    valid = id >= 0 && words.claim(id, HUMAN) == WordIndex.UNCLAIMED;
+                }
+                if (valid) {
+                    gameStats.addWord(foundWord, BoggleStats.Player.Human);
+                    this.playerList = this.playerList.getNext();
+                    System.out.println("Nice, You Scored " + (foundWord.length() - 3) + " Point(s)!");
+                } else {System.out.println("Invalid Input '" + foundWord + "', Try Again!");}
+            }
         }
     }
 
@@ -476,16 +486,49 @@ public class BoggleGame {
      * finds, update the computer's word list and increment the
      * computer's score (stored in boggleStats).
      *
-     * @param allWords A mutable list of all legal words that can be found, given the boggleGrid grid letters
+     * @param words All legal words that can be found, given the boggleGrid grid letters, and who found them
      */
-    private void computerMove(Map<String,ArrayList<Position>> all_words){
-        List<String> words = new ArrayList<String>(all_words.keySet());
-        for (int i = 0; i < words.size(); i++) {
-            String word = words.get(i);
-            if (!gameStats.getPlayerWords().contains(word)) {
-                gameStats.addWord(word, BoggleStats.Player.Computer);
+    private void computerMove(WordIndex words){
+        for (int id = 0; id < words.size(); id++) {
+            if (words.claim(id, COMPUTER) == WordIndex.UNCLAIMED) {
+                gameStats.addWord(words.getWord(id), BoggleStats.Player.Computer);
             }
         }
     }
 
+    /**
+     * A board whose words are being found in the background.
+     */
+    private static class PendingBoard {
+        /**
+         * the board
+         */
+        private final BoggleGrid grid;
+        /**
+         * true if the words came from the solve cache
+         */
+        private final boolean cached;
+        /**
+         * the words found so far
+         */
+        private final Set<String> found = ConcurrentHashMap.newKeySet();
+        /**
+         * the search for every word on the board
+         */
+        private CompletableFuture<SolvedBoard> solving;
+        /**
+         * set when the board is thrown away, to stop the search at its next word
+         */
+        private volatile boolean cancelled;
+
+        PendingBoard(BoggleGrid grid, boolean cached) {
+            this.grid = grid;
+            this.cached = cached;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+            this.solving.cancel(false);
+        }
+    }
 }
@@ -2,29 +2,43 @@ package boggle;
 
 /**
  * The BoggleGrid class for the first Assignment in CSC207, Fall 2022
- * The BoggleGrid represents the grid on which we play Boggle 
+ * The BoggleGrid represents the grid on which we play Boggle
  */
 public class BoggleGrid {
 
     /**
-     * size of grid
-     */  
-    private int size;
+     * number of rows in the grid
+     */
+    private int rows;
+    /**
+     * number of columns in the grid
+     */
+    private int cols;
     /**
      * characters assigned to grid
-     */      
+     */
     private char[][] board;
 
     /* BoggleGrid constructor
      * ----------------------
-     * @param size  The size of the Boggle grid to initialize
+     * @param size  The size of the (square) Boggle grid to initialize
      */
     public BoggleGrid(int size) {
-        this.size = size;
-        this.board = new char[size][size];
+        this(size, size);
+    }
+
+    /* BoggleGrid constructor
+     * ----------------------
+     * @param rows  The number of rows in the Boggle grid to initialize
+     * @param cols  The number of columns in the Boggle grid to initialize
+     */
+    public BoggleGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.board = new char[rows][cols];
     }
 
-    /* 
+    /*
      * Assigns a letter in the string of letters to each grid position
      * Letters should be assigned left to right, top to bottom
      *
@@ -32,8 +46,8 @@ public class BoggleGrid {
      */
     public void initalizeBoard(String letters) {
         int k = 0;
-        for (int i = 0; i < this.size; i++){
-            for (int j = 0; j < this.size; j++){
+        for (int i = 0; i < this.rows; i++){
+            for (int j = 0; j < this.cols; j++){
                 this.board[i][j] = letters.charAt(k);
                 k++;
             }
@@ -49,8 +63,8 @@ public class BoggleGrid {
     @Override
     public String toString() {
         String boardString = "";
-        for(int row = 0; row < this.size; row++){
-            for(int col = 0; col < this.size; col++){
+        for(int row = 0; row < this.rows; row++){
+            for(int col = 0; col < this.cols; col++){
                 boardString += this.board[row][col] + " ";
             }
             boardString += "\n";
@@ -62,17 +76,28 @@ public class BoggleGrid {
      * @return int the number of rows on the board
      */
     public int numRows() {
-        return this.size;
+        return this.rows;
     }
 
-    /* 
-     * @return int the number of columns on the board (assumes square grid)
+    /*
+     * @return int the number of columns on the board
      */
     public int numCols() {
-        return this.size;
+        return this.cols;
+    }
+
+    /*
+     * @return String the letters on the grid, left to right, top to bottom
+     */
+    public String getLetters() {
+        StringBuilder letters = new StringBuilder(this.rows * this.cols);
+        for (char[] row : this.board) {
+            letters.append(row);
+        }
+        return letters.toString();
     }
 
-    /* 
+    /*
      * @return char the character at a given grid position
      */
     public char getCharAt(int row, int col) {
@@ -0,0 +1,347 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * The BoggleSolver finds every legal word on a BoggleGrid.
+ *
+ * The depth-first search carries a cursor into the Dictionary trie alongside the
+ * path it is extending, so every step costs a single child lookup, and a branch is
+ * abandoned as soon as the cursor has no child for the next letter.
+ *
+ * Grid cells are numbered row * numCols + col. The search reads neighbours from a
+ * precomputed adjacency table, marks visited cells in a bitmask and keeps the path in
+ * a reusable int array, so nothing is allocated until a word is actually found.
+ *
+ * solveParallel splits the same search into independent tasks on the common
+ * ForkJoinPool and gives exactly the same result as solve.
+ *
+ * Both can also hand each word to a callback the moment it is first found, so a caller
+ * can start using the words (e.g. let the player start guessing) while the rest of the
+ * board is still being searched.
+ */
+public class BoggleSolver {
+
+    /**
+     * shortest word that counts in Boggle
+     */
+    public static final int MIN_WORD_LENGTH = 4;
+
+    /**
+     * row offsets of the eight neighbours of a position (N, S, E, W, NE, NW, SE, SW)
+     */
+    private static final int[] ROW_STEPS = {-1, 1, 0, 0, -1, -1, 1, 1};
+    /**
+     * column offsets of the eight neighbours of a position (N, S, E, W, NE, NW, SE, SW)
+     */
+    private static final int[] COL_STEPS = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    /**
+     * boards with more cells than this are split by their first two cells rather than
+     * only by their starting cell, to give the parallel solver enough tasks to balance
+     */
+    private static final int PAIR_SPLIT_CELLS = 25;
+
+    /**
+     * adjacency tables, one per board shape, shared by every solver
+     */
+    private static final Map<Long, int[][]> NEIGHBOURS = new ConcurrentHashMap<Long, int[][]>();
+
+    /**
+     * dictionary of legal words
+     */
+    private final Dictionary boggleDict;
+
+    /**
+     * BoggleSolver constructor
+     *
+     * @param boggleDict A dictionary of legal words
+     */
+    public BoggleSolver(Dictionary boggleDict) {
+        this.boggleDict = boggleDict;
+    }
+
+    /*
+     * Finds all legal words on the grid, each with the first path (in search order) that spells it.
+     *
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     * @return SolvedBoard the words found, with their paths
+     */
+    public SolvedBoard solve(BoggleGrid boggleGrid) {
+        return solve(boggleGrid, null);
+    }
+
+    /*
+     * Same as solve, but also passes every word to onWord as soon as it is found, once
+     * per word, on the calling thread.
+     *
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     * @param onWord called with each word found, or null
+     * @return SolvedBoard the words found, with their paths
+     */
+    public SolvedBoard solve(BoggleGrid boggleGrid, Consumer<String> onWord) {
+        SolvedBoard.Builder builder = new SolvedBoard.Builder(boggleGrid.numRows(), boggleGrid.numCols());
+        Search search = new Search(boggleGrid, (word, node, path, length) -> {
+            if (builder.add(word, node, path, length) && onWord != null) onWord.accept(word);
+        });
+        for (int cell = 0; cell < search.letters.length; cell++) {
+            search.extend(cell, this.boggleDict.root(), 0);
+        }
+        return builder.build();
+    }
+
+    /*
+     * Same as solve, but searches from different starting cells (or, on boards
+     * larger than 5x5, different pairs of first two cells) at the same time on the
+     * common ForkJoinPool. Every task is numbered in the order the sequential search
+     * would reach it, and when two tasks find the same word the path from the
+     * lower-numbered task is kept; the words are then put in the order the
+     * sequential search would have found them, so the result is identical to solve.
+     *
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     * @return SolvedBoard the words found, with their paths
+     */
+    public SolvedBoard solveParallel(BoggleGrid boggleGrid) {
+        return solveParallel(boggleGrid, null);
+    }
+
+    /*
+     * Same as solveParallel, but also passes every word to onWord as soon as it is first
+     * found, once per word. onWord is called from the pool's threads, possibly at the
+     * same time, so it must be thread-safe.
+     *
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     * @param onWord called with each word found, or null
+     * @return SolvedBoard the words found, with their paths
+     */
+    public SolvedBoard solveParallel(BoggleGrid boggleGrid, Consumer<String> onWord) {
+        int cells = boggleGrid.numRows() * boggleGrid.numCols();
+        int[][] adjacent = neighbours(boggleGrid.numRows(), boggleGrid.numCols());
+        boolean pairs = cells > PAIR_SPLIT_CELLS;
+        int tasks = pairs ? cells * ROW_STEPS.length : cells;
+        Map<String, Found> found = new ConcurrentHashMap<String, Found>();
+
+        IntStream.range(0, tasks).parallel().forEach(task -> {
+            int[] finds = {0}; // words found so far by this task
+            Search search = new Search(boggleGrid, (word, node, path, length) -> {
+                long order = ((long) task << 32) | finds[0]++;
+                Found earlier = found.get(word);
+                if (earlier == null) {
+                    earlier = found.putIfAbsent(word, new Found(order, node, Arrays.copyOf(path, length)));
+                    if (earlier == null) {
+                        if (onWord != null) onWord.accept(word);
+                        return;
+                    }
+                }
+                if (earlier.order > order) {
+                    found.merge(word, new Found(order, node, Arrays.copyOf(path, length)), (a, b) -> a.order <= b.order ? a : b);
+                }
+            });
+            if (!pairs) {
+                search.extend(task, this.boggleDict.root(), 0);
+            } else if (task % ROW_STEPS.length < adjacent[task / ROW_STEPS.length].length) {
+                search.extendPair(task / ROW_STEPS.length, adjacent[task / ROW_STEPS.length][task % ROW_STEPS.length]);
+            }
+        });
+        // put the words back in the order the sequential search finds them
+        List<Map.Entry<String, Found>> words = new ArrayList<Map.Entry<String, Found>>(found.entrySet());
+        words.sort(Comparator.comparingLong(entry -> entry.getValue().order));
+        SolvedBoard.Builder builder = new SolvedBoard.Builder(boggleGrid.numRows(), boggleGrid.numCols());
+        for (Map.Entry<String, Found> entry : words) {
+            builder.add(entry.getKey(), entry.getValue().node, entry.getValue().path, entry.getValue().path.length);
+        }
+        return builder.build();
+    }
+
+    /*
+     * Finds all legal words on the grid and enters them into allWords, each with the
+     * first path (in search order) that spells it.
+     *
+     * @param allWords A mutable map of all legal words that can be found, given the boggleGrid grid letters
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     */
+    public void findAllWords(Map<String, ArrayList<Position>> allWords, BoggleGrid boggleGrid) {
+        copyInto(solve(boggleGrid), allWords);
+    }
+
+    /*
+     * Same as findAllWords, but searched in parallel (see solveParallel).
+     *
+     * @param allWords A mutable map of all legal words that can be found, given the boggleGrid grid letters
+     * @param boggleGrid A boggle grid, with a letter at each position on the grid
+     */
+    public void findAllWordsParallel(Map<String, ArrayList<Position>> allWords, BoggleGrid boggleGrid) {
+        copyInto(solveParallel(boggleGrid), allWords);
+    }
+
+    private static void copyInto(SolvedBoard solved, Map<String, ArrayList<Position>> allWords) {
+        for (int i = 0; i < solved.size(); i++) {
+            if (!allWords.containsKey(solved.getWord(i))) allWords.put(solved.getWord(i), solved.getPath(i));
+        }
+    }
+
+    /*
+     * Returns the adjacency table for a board shape: entry c lists the cells touching
+     * cell c horizontally, vertically or diagonally (in N, S, E, W, NE, NW, SE, SW order).
+     * Tables are built once per shape and then shared.
+     *
+     * @param rows number of rows on the board
+     * @param cols number of columns on the board
+     * @return int[][] the neighbours of every cell
+     */
+    static int[][] neighbours(int rows, int cols) {
+        return NEIGHBOURS.computeIfAbsent(((long) rows << 32) | cols, key -> {
+            int[][] table = new int[rows * cols][];
+            int[] buffer = new int[ROW_STEPS.length];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int count = 0;
+                    for (int i = 0; i < ROW_STEPS.length; i++) {
+                        int newRow = row + ROW_STEPS[i];
+                        int newCol = col + COL_STEPS[i];
+                        if (newRow >= 0 && newCol >= 0 && newRow < rows && newCol < cols) {
+                            buffer[count++] = newRow * cols + newCol;
+                        }
+                    }
+                    table[row * cols + col] = Arrays.copyOf(buffer, count);
+                }
+            }
+            return table;
+        });
+    }
+
+    /**
+     * The state of one solve: the board letters by cell, the visited set, and the
+     * path and word currently being extended.
+     */
+    private class Search {
+        /**
+         * number of columns on the board
+         */
+        private final int cols;
+        /**
+         * letter at each cell
+         */
+        private final char[] letters;
+        /**
+         * neighbours of each cell
+         */
+        private final int[][] adjacent;
+        /**
+         * bitmask of cells on the current path, 64 cells per long
+         */
+        private final long[] visited;
+        /**
+         * cells on the current path
+         */
+        private final int[] path;
+        /**
+         * letters on the current path
+         */
+        private final char[] word;
+        /**
+         * where found words are sent
+         */
+        private final WordSink sink;
+
+        Search(BoggleGrid boggleGrid, WordSink sink) {
+            int rows = boggleGrid.numRows();
+            this.cols = boggleGrid.numCols();
+            this.letters = new char[rows * this.cols];
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < this.cols; col++) {
+                    this.letters[row * this.cols + col] = Character.toUpperCase(boggleGrid.getCharAt(row, col));
+                }
+            }
+            this.adjacent = neighbours(rows, this.cols);
+            this.visited = new long[(this.letters.length + 63) >>> 6];
+            this.path = new int[this.letters.length];
+            this.word = new char[this.letters.length];
+            this.sink = sink;
+        }
+
+        /*
+         * Extends the current path (of the given length) onto cell if the dictionary has
+         * a word continuing with that cell's letter, records the word if it is complete,
+         * and then tries every unvisited neighbour.
+         */
+        void extend(int cell, int node, int length) {
+            node = boggleDict.child(node, this.letters[cell]);
+            if (node < 0) return;
+
+            this.path[length] = cell;
+            this.word[length] = this.letters[cell];
+            length++;
+            if (length >= MIN_WORD_LENGTH && boggleDict.isWord(node)) {
+                found(length, node);
+            }
+
+            this.visited[cell >>> 6] |= 1L << cell;
+            for (int next : this.adjacent[cell]) {
+                if ((this.visited[next >>> 6] & (1L << next)) == 0) {
+                    extend(next, node, length);
+                }
+            }
+            this.visited[cell >>> 6] &= ~(1L << cell);
+        }
+
+        /*
+         * Searches only the paths that start on first and continue onto second.
+         */
+        void extendPair(int first, int second) {
+            int node = boggleDict.child(boggleDict.root(), this.letters[first]);
+            if (node < 0) return;
+
+            this.path[0] = first;
+            this.word[0] = this.letters[first];
+            this.visited[first >>> 6] |= 1L << first;
+            extend(second, node, 1);
+            this.visited[first >>> 6] &= ~(1L << first);
+        }
+
+        /*
+         * Sends the word spelled by the first length cells of the path to the sink.
+         */
+        private void found(int length, int node) {
+            this.sink.found(new String(this.word, 0, length), node, this.path, length);
+        }
+    }
+
+    /**
+     * Receives each word as the search finds it.
+     */
+    private interface WordSink {
+        /*
+         * @param word the word found
+         * @param node the word's trie node
+         * @param path the cells spelling the word (the first length entries); only valid during this call
+         * @param length the number of cells in the path
+         */
+        void found(String word, int node, int[] path, int length);
+    }
+
+    /**
+     * A word's trie node and path, tagged with where the parallel search found it.
+     */
+    private static class Found {
+        /**
+         * the task that found the word (high 32 bits), and how many words that task had found before it
+         */
+        private final long order;
+        private final int node;
+        private final int[] path;
+
+        Found(long order, int node, int[] path) {
+            this.order = order;
+            this.node = node;
+            this.path = path;
+        }
+    }
+}
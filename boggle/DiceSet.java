@@ -0,0 +1,91 @@
+package boggle;
+
+/**
+ * A set of Boggle dice, each given as the six letters on its faces.
+ * Boards are filled by shuffling the dice onto the grid and rolling each one.
+ */
+public class DiceSet {
+
+    /**
+     * dice used to randomize letter assignments for a small (4x4) grid
+     */
+    public static final DiceSet SMALL = new DiceSet(
+            "AAEEGN", "ABBJOO", "ACHOPS", "AFFKPS", "AOOTTW", "CIMOTU", "DEILRX", "DELRVY",
+            "DISTTY", "EEGHNW", "EEINSU", "EHRTVW", "EIOSST", "ELRTTY", "HIMNQU", "HLNNRZ");
+    /**
+     * dice used to randomize letter assignments for a big (5x5) grid
+     */
+    public static final DiceSet BIG = new DiceSet(
+            "AAAFRS", "AAEEEE", "AAFIRS", "ADENNN", "AEEEEM", "AEEGMU", "AEGMNN", "AFIRSY",
+            "BJKQXZ", "CCNSTW", "CEIILT", "CEILPT", "CEIPST", "DDLNOR", "DDHNOT", "DHHLOR",
+            "DHLNOR", "EIIITT", "EMOTTT", "ENSSSU", "FIPRSY", "GORRVW", "HIPRRY", "NOOTUW", "OOOTTU");
+    /**
+     * dice used to randomize letter assignments for a super big (6x6) grid.
+     * Grid positions hold a single letter, so the two-letter faces of the real
+     * Super Big Boggle die (An, Er, He, In, Qu, Th) keep their first letter, and the
+     * blank faces of its EIO die repeat its vowels.
+     */
+    public static final DiceSet SUPER_BIG = new DiceSet(
+            "AAAFRS", "AAEEEE", "AAEEOO", "AAFIRS", "ABDEIO", "ADENNN", "AEEEEM", "AEEGMU",
+            "AEGMNN", "AEILMN", "AEINOU", "AFIRSY", "AEHIQT", "BBJKXZ", "CCENST", "CDDLNN",
+            "CEIITT", "CEIPST", "CFGNUY", "DDHNOT", "DHHLOR", "DHHNOW", "DHLNOR", "EHILRS",
+            "EIILST", "EILPST", "EIOEIO", "EMTTTO", "ENSSSU", "GORRVW", "HIRSTV", "HOPRST",
+            "IPRSYY", "JKQWXZ", "NOOTUW", "OOOTTU");
+
+    /**
+     * the faces of every die
+     */
+    private final String[] dice;
+
+    /**
+     * DiceSet constructor
+     *
+     * @param dice the faces of every die, six letters per die
+     */
+    public DiceSet(String... dice) {
+        for (String die : dice) {
+            if (die.length() != 6) throw new IllegalArgumentException("A die needs 6 faces: " + die);
+        }
+        this.dice = dice.clone();
+    }
+
+    /*
+     * Picks the standard set for a board: the small set up to 4x4, the big set up to
+     * 5x5, and the super big set for anything larger.
+     *
+     * @return DiceSet the dice to fill a rows x cols board with
+     */
+    public static DiceSet forBoard(int rows, int cols) {
+        int cells = rows * cols;
+        if (cells <= SMALL.size()) return SMALL;
+        if (cells <= BIG.size()) return BIG;
+        return SUPER_BIG;
+    }
+
+    /*
+     * @return int the number of dice in the set
+     */
+    public int size() {
+        return this.dice.length;
+    }
+
+    /*
+     * @return String the faces of die i
+     */
+    public String getDie(int i) {
+        return this.dice[i];
+    }
+
+    /*
+     * Returns a String of random letters, one per grid position, organized left to right,
+     * top to bottom. Each position gets a different die, chosen at random, showing a random face.
+     * Boards with more positions than there are dice take a fresh copy of the set whenever it runs out.
+     * Use a BoardGenerator directly to roll many boards, or to roll them from a seed.
+     *
+     * @param cells the number of grid positions
+     * @return String a String of random letters
+     */
+    public String roll(int cells) {
+        return new BoardGenerator(this).next(cells);
+    }
+}
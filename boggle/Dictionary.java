@@ -1,74 +1,425 @@
 package boggle;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.TreeSet;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 
 /**
  * The Dictionary class for the first Assignment in CSC207, Fall 2022
- * The Dictionary will contain lists of words that are acceptable for Boggle 
+ * The Dictionary will contain lists of words that are acceptable for Boggle
  */
 public class Dictionary {
 
     /**
-     * set of legal words for Boggle
+     * number of letters in the alphabet the trie is indexed by
      */
-    private TreeSet<String> legalWords;
+    private static final int ALPHABET = 26;
+    /**
+     * flag bit marking a trie node that ends a legal word
+     */
+    private static final int TERMINAL = 1 << ALPHABET;
+    /**
+     * bits of a node header that hold its child letter mask
+     */
+    private static final int CHILD_MASK = TERMINAL - 1;
+
+    /**
+     * word list the shared Dictionary is loaded from
+     */
+    public static final String WORD_LIST = "wordlist.txt";
+    /**
+     * compiled form of WORD_LIST (see DictionaryCompiler), used instead of it when up to date
+     */
+    public static final String COMPILED_WORD_LIST = "wordlist.dict";
+
+    /**
+     * first four bytes of a compiled dictionary file ("BGDT")
+     */
+    private static final int MAGIC = 0x42474454;
+    /**
+     * version of the compiled dictionary layout
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * size of the compiled file header: magic, format version, word count, node count
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * trie of legal words for Boggle, two ints per node:
+     * nodes[2n] holds the child letter mask (bit i set if letter 'a' + i has a child)
+     * plus the TERMINAL flag, nodes[2n + 1] holds the index of the node's first child.
+     * Children of a node are stored next to each other in letter order, so a child is
+     * found by counting the set bits below its letter. Node 0 is the root.
+     */
+    private final IntBuffer nodes;
+    /**
+     * number of words in the trie
+     */
+    private final int wordCount;
+    /**
+     * fingerprint of the trie contents, computed on first use (see version())
+     */
+    private volatile String version;
+
+    /**
+     * Holds the shared Dictionary, so the word list is only read the first time it is needed
+     * (the JVM guarantees the holder class is initialized once, on first use, and safely published).
+     */
+    private static class Shared {
+        private static final Dictionary INSTANCE = load(COMPILED_WORD_LIST, WORD_LIST);
+    }
+
+    /*
+     * Loads the compiled dictionary if it is up to date and readable, and otherwise parses
+     * the word list, so a stale, truncated or foreign compiled file only costs the time
+     * to parse the word list.
+     *
+     * @param compiled the compiled dictionary (see DictionaryCompiler), which need not exist
+     * @param source the word list it was compiled from
+     * @return Dictionary the words in source
+     */
+    public static Dictionary load(String compiled, String source) {
+        if (isUpToDate(compiled, source)) {
+            try {
+                return new Dictionary(compiled);
+            } catch (IllegalStateException e) {
+                System.err.println(e.getMessage() + "; reading " + source + " instead.");
+            }
+        }
+        return new Dictionary(source);
+    }
 
     /**
-     * Class constructor 
-     * 
+     * Class constructor
+     * The file may either be a plain list of words, one per line, or a dictionary
+     * compiled by DictionaryCompiler. A compiled file is memory-mapped and searched
+     * in place, so nothing is parsed and the trie never occupies the heap.
+     *
      * @param filename the file containing a list of legal words.
      */
     public Dictionary(String filename) {
+        if (isCompiled(filename)) {
+            ByteBuffer mapped = map(filename);
+            this.wordCount = mapped.getInt(8);
+            this.nodes = mapped.position(HEADER_BYTES).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        } else {
+            TrieBuilder builder = readWordList(filename);
+            this.wordCount = builder.words;
+            this.nodes = IntBuffer.wrap(builder.flatten());
+        }
+        // not on System.out, which batch and search modes keep for their results
+        System.err.println("Initialized " + this.wordCount + " words in the Dictionary.");
+    }
+
+    /*
+     * Reads a plain word list, one word per line, into a trie builder.
+     */
+    private static TrieBuilder readWordList(String filename) {
         String line = "";
-        int wordcount = 0;
-        this.legalWords = new TreeSet<String>();
+        TrieBuilder builder = new TrieBuilder();
         try
         {
             BufferedReader br = new BufferedReader(new FileReader(filename));
             while ((line = br.readLine()) != null)
             {
-                if (line.strip().length() > 0) {
-                    legalWords.add(line.strip());
-                    wordcount++;
+                String word = line.strip();
+                if (word.length() > 0) {
+                    builder.add(word);
                 }
             }
+            br.close();
         } catch (FileNotFoundException e) {
             throw new RuntimeException(e);
         } catch (IOException e)
         {
             e.printStackTrace();
         }
-        System.out.println("Initialized " + wordcount + " words in the Dictionary.");;
+        return builder;
+    }
+
+    /*
+     * @return boolean true if the file starts with the compiled dictionary header
+     */
+    private static boolean isCompiled(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0);
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Memory-maps a compiled dictionary and checks its header.
+     *
+     * @return ByteBuffer the whole file, header included
+     */
+    private static ByteBuffer map(String filename) {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IllegalStateException(filename + " is truncated");
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(4) != FORMAT_VERSION) {
+                throw new IllegalStateException(filename + " was compiled with an unsupported format version");
+            }
+            if ((long) mapped.getInt(12) * 8 != channel.size() - HEADER_BYTES) {
+                throw new IllegalStateException(filename + " is truncated");
+            }
+            return mapped;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    /* 
+    /*
+     * @return boolean true if the compiled file exists and is newer than the word list it was made from
+     */
+    private static boolean isUpToDate(String compiled, String source) {
+        File compiledFile = new File(compiled);
+        return compiledFile.isFile() && compiledFile.lastModified() >= new File(source).lastModified();
+    }
+
+    /*
+     * Writes the trie in the compiled format read back by the constructor:
+     * a 16 byte header (magic, format version, word count, node count) followed by
+     * the nodes, all as little-endian ints. The file is written under a temporary name
+     * and then renamed into place, so a crash part way through never leaves a half-written
+     * dictionary where the Dictionary would load it.
+     *
+     * @param filename the file to write
+     */
+    public void writeCompiled(String filename) throws IOException {
+        int ints = this.nodes.limit();
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + 4 * ints).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(this.wordCount).putInt(ints / 2);
+        for (int i = 0; i < ints; i++) {
+            out.putInt(this.nodes.get(i));
+        }
+        out.flip();
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                while (out.hasRemaining()) channel.write(out);
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /*
+     * @return int the number of words in the dictionary
+     */
+    public int size() {
+        return this.wordCount;
+    }
+
+    /*
+     * Two dictionaries holding the same words have the same version, whichever file
+     * they were loaded from, so anything derived from a dictionary (such as solved
+     * boards) can be keyed by it and reused until the word list changes.
+     *
+     * @return String a fingerprint of the words in the dictionary
+     */
+    public String version() {
+        if (this.version == null) {
+            long hash = 0xcbf29ce484222325L; // 64-bit FNV-1a over the trie
+            for (int i = 0; i < this.nodes.limit(); i++) {
+                hash = (hash ^ this.nodes.get(i)) * 0x100000001b3L;
+            }
+            this.version = Long.toHexString(hash);
+        }
+        return this.version;
+    }
+
+    /*
+     * The Dictionary is never modified after it is built, so one instance can be
+     * shared by every round, game, player and thread in the process.
+     *
+     * @return Dictionary the shared dictionary of legal words, loaded on first use
+     */
+    public static Dictionary getInstance() {
+        return Shared.INSTANCE;
+    }
+
+    /*
      * Checks to see if a provided word is in the dictionary.
      *
      * @param word  The word to check
      * @return  A boolean indicating if the word has been found
      */
     public boolean containsWord(String word) {
-        return legalWords.contains(word.toLowerCase());
+        int node = walk(word);
+        return node >= 0 && isWord(node);
     }
 
-    /* 
+    /*
      * Checks to see if a provided string is a prefix of any word in the dictionary.
      *
      * @param str  The string to check
      * @return  A boolean indicating if the string has been found as a prefix
      */
     public boolean isPrefix(String str) {
-        TreeSet<String> ts = (TreeSet)this.legalWords.clone();
-        String word = "";
-        boolean status = false;
-        for (int i = 0; i < this.legalWords.size(); i++){
-            word = ts.pollFirst();
-            if (word.indexOf(str.toLowerCase()) == 0){status = true;}
-        } return status;
+        return walk(str) >= 0;
+    }
+
+    /*
+     * @return int the root of the trie, the starting cursor for an incremental search
+     */
+    public int root() {
+        return 0;
+    }
+
+    /*
+     * Advances a cursor by one letter (case-insensitive).
+     * A cursor that cannot be advanced means no word continues along that letter.
+     *
+     * @param node  A cursor obtained from root() or a previous call to child
+     * @param letter  The next letter
+     * @return int the new cursor, or -1 if no word in the dictionary continues with letter
+     */
+    public int child(int node, char letter) {
+        return step(node, letterIndex(letter));
+    }
+
+    /*
+     * @param node  A cursor obtained from root() or child
+     * @return boolean true if the letters leading to node spell a word in the dictionary
+     */
+    public boolean isWord(int node) {
+        return (this.nodes.get(2 * node) & TERMINAL) != 0;
+    }
+
+    /*
+     * Follows the letters of str down the trie, ignoring case.
+     *
+     * @param str  The string to follow
+     * @return int the node reached, or -1 if str leaves the trie
+     */
+    private int walk(String str) {
+        int node = 0;
+        for (int i = 0; i < str.length() && node >= 0; i++) {
+            node = step(node, letterIndex(str.charAt(i)));
+        }
+        return node;
+    }
+
+    /*
+     * @return int the child of node along the given letter, or -1 if there is none
+     */
+    private int step(int node, int letter) {
+        if (letter < 0) return -1;
+        int header = this.nodes.get(2 * node);
+        int bit = 1 << letter;
+        if ((header & bit) == 0) return -1;
+        return this.nodes.get(2 * node + 1) + Integer.bitCount(header & CHILD_MASK & (bit - 1));
+    }
+
+    /*
+     * @return int the alphabet index of c (case-insensitive), or -1 if c is not a letter
+     */
+    private static int letterIndex(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a';
+        if (c >= 'A' && c <= 'Z') return c - 'A';
+        return -1;
+    }
+
+    /**
+     * Builds the trie one word at a time with a full 26-way child table per node,
+     * then packs it into the compact layout used by the Dictionary.
+     */
+    private static class TrieBuilder {
+        /**
+         * child table, ALPHABET entries per node (0 means no child, since the root is never a child)
+         */
+        private int[] next = new int[ALPHABET * 1024];
+        /**
+         * which nodes end a word
+         */
+        private boolean[] terminal = new boolean[1024];
+        /**
+         * number of nodes created so far, including the root
+         */
+        private int size = 1;
+        /**
+         * number of distinct words added
+         */
+        private int words = 0;
+
+        /*
+         * Adds a word made only of letters a-z (in lower case) to the trie.
+         * Words with any other characters can never be formed on a grid, so they are skipped.
+         *
+         * @return boolean true if the word was added
+         */
+        boolean add(String word) {
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < 'a' || c > 'z') return false;
+            }
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int slot = node * ALPHABET + (word.charAt(i) - 'a');
+                if (this.next[slot] == 0) {
+                    if (this.size == this.terminal.length) grow();
+                    this.next[slot] = this.size++;
+                }
+                node = this.next[slot];
+            }
+            if (!this.terminal[node]) this.words++;
+            this.terminal[node] = true;
+            return true;
+        }
+
+        private void grow() {
+            this.terminal = Arrays.copyOf(this.terminal, this.terminal.length * 2);
+            this.next = Arrays.copyOf(this.next, this.next.length * 2);
+        }
+
+        /*
+         * Renumbers the nodes breadth-first, so that the children of every node are contiguous.
+         *
+         * @return int[] the packed trie
+         */
+        int[] flatten() {
+            int[] packed = new int[2 * this.size];
+            ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+            queue.add(0);
+            int nextFree = 1;
+            for (int packedNode = 0; !queue.isEmpty(); packedNode++) {
+                int node = queue.poll();
+                int header = this.terminal[node] ? TERMINAL : 0;
+                packed[2 * packedNode + 1] = nextFree;
+                for (int letter = 0; letter < ALPHABET; letter++) {
+                    int childNode = this.next[node * ALPHABET + letter];
+                    if (childNode != 0) {
+                        header |= 1 << letter;
+                        queue.add(childNode);
+                        nextFree++;
+                    }
+                }
+                packed[2 * packedNode] = header;
+            }
+            return packed;
+        }
     }
 
 }
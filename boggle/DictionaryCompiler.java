@@ -0,0 +1,24 @@
+package boggle;
+
+import java.io.IOException;
+
+/**
+ * Command line tool that compiles a plain word list into the binary trie format
+ * the Dictionary can memory-map, so games start without parsing the word list.
+ *
+ * Usage: java boggle.DictionaryCompiler [wordlist.txt] [wordlist.dict]
+ */
+public class DictionaryCompiler {
+
+    /**
+     * Main method.
+     * @param args the word list to read and the compiled file to write (both optional)
+     **/
+    public static void main(String[] args) throws IOException {
+        String source = args.length > 0 ? args[0] : Dictionary.WORD_LIST;
+        String target = args.length > 1 ? args[1] : Dictionary.COMPILED_WORD_LIST;
+        Dictionary dictionary = new Dictionary(source);
+        dictionary.writeCompiled(target);
+        System.out.println("Compiled " + dictionary.size() + " words from " + source + " into " + target + ".");
+    }
+}
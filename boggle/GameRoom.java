@@ -0,0 +1,248 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * One round on a board shared by many players, who all look for words at the same time.
+ *
+ * Each word on the board can be claimed once, by the first player to find it; it scores
+ * for that player and for no one else. Claims may come from any number of threads at
+ * once: a claim is a lookup in the round's WordIndex and a single compareAndSet on the
+ * word's claimant, so exactly one of any players racing for a word wins it, without
+ * locking the room, and each player's score only changes with the claims that player
+ * wins or gives up. So at any moment the scores add up to the points of the words claimed so far.
+ *
+ * Players join with join() and get the lowest player number no one else in the room is
+ * using, so a number given up with leave() goes to the next player to join. A player who
+ * leaves before the round is over gives up their words and score, so the words can still
+ * be won by the players who stay.
+ *
+ * close() ends the round by claiming every word still unclaimed for the computer, with the
+ * same compareAndSet the players use, so each word ends up either with the one player who
+ * won it or with the computer, never both; once close() returns no more claims are
+ * accepted. Closing and leaving take the room's lock, so a player who leaves as the room
+ * closes either gives up their words before the computer's sweep or keeps them.
+ */
+public class GameRoom {
+
+    /**
+     * outcome of a claim
+     */
+    public enum Claim {
+        CLAIMED, TOO_SHORT, NOT_ON_BOARD, ALREADY_YOURS, TAKEN, CLOSED
+    }
+
+    /**
+     * most players in a room, one for each bit of the seats mask
+     */
+    public static final int MAX_PLAYERS = 64;
+    /**
+     * claimant of the words no player had claimed when the room closed
+     */
+    public static final int COMPUTER = -2;
+
+    /**
+     * the board all players share
+     */
+    private final BoggleGrid grid;
+    /**
+     * every legal word on the board, and the player who claimed each one
+     */
+    private final WordIndex words;
+    /**
+     * each player's score, by player number
+     */
+    private final AtomicIntegerArray scores = new AtomicIntegerArray(MAX_PLAYERS);
+    /**
+     * the player numbers in use, as a bit mask (bit n is set while player n is in the room)
+     */
+    private final AtomicLong seats = new AtomicLong();
+    /**
+     * true once the round is over
+     */
+    private volatile boolean closed;
+    /**
+     * the words the computer took when the room closed, or null while it is open
+     */
+    private List<String> computerWords;
+
+    /**
+     * GameRoom constructor
+     *
+     * @param grid the board all players share
+     * @param allWords every legal word on the board
+     */
+    public GameRoom(BoggleGrid grid, SolvedBoard allWords) {
+        this.grid = grid;
+        this.words = new WordIndex(allWords);
+    }
+
+    /*
+     * Adds a player to the room.
+     *
+     * @return int the new player's number, or -1 if the room is full or closed
+     */
+    public int join() {
+        while (true) {
+            long taken = this.seats.get();
+            if (this.closed || taken == -1L) return -1;
+            int player = Long.numberOfTrailingZeros(~taken);
+            if (this.seats.compareAndSet(taken, taken | 1L << player)) return player;
+        }
+    }
+
+    /*
+     * Takes a player out of the room, so their number can be given to someone else. Before
+     * the round is over their words go back on the board and their score goes back to 0.
+     *
+     * @param player the player's number, from join()
+     */
+    public synchronized void leave(int player) {
+        checkSeated(player);
+        if (!this.closed) {
+            for (int id = 0; id < this.words.size(); id++) {
+                if (this.words.getClaimant(id) == player && this.words.release(id, player)) {
+                    this.scores.addAndGet(player, -this.words.getPoints(id));
+                }
+            }
+        }
+        this.seats.getAndUpdate(taken -> taken & ~(1L << player));
+    }
+
+    private void checkSeated(int player) {
+        if (player < 0 || player >= MAX_PLAYERS || (this.seats.get() & 1L << player) == 0) {
+            throw new IllegalArgumentException("No player " + player + " in the room");
+        }
+    }
+
+    /*
+     * Claims a word for a player, if it is on the board and no one has claimed it yet.
+     *
+     * @param player the player's number, from join()
+     * @param word the word, in any case
+     * @return Claim whether the player won the word, and if not, why not
+     */
+    public Claim claim(int player, String word) {
+        checkSeated(player);
+        if (this.closed) return Claim.CLOSED;
+        if (word.length() < BoggleSolver.MIN_WORD_LENGTH) return Claim.TOO_SHORT;
+        int id = this.words.idOf(word);
+        if (id < 0) return Claim.NOT_ON_BOARD;
+        int owner = this.words.claim(id, player);
+        if (owner == COMPUTER) return Claim.CLOSED;
+        if (owner != WordIndex.UNCLAIMED) return owner == player ? Claim.ALREADY_YOURS : Claim.TAKEN;
+        this.scores.addAndGet(player, this.words.getPoints(id));
+        return Claim.CLAIMED;
+    }
+
+    /*
+     * @return int the number of the player who claimed word, -1 if no one has, or
+     *         COMPUTER if no player had when the room closed
+     */
+    public int getClaimant(String word) {
+        int id = this.words.idOf(word);
+        return id < 0 ? WordIndex.UNCLAIMED : this.words.getClaimant(id);
+    }
+
+    /*
+     * @return int the player's score so far
+     */
+    public int getScore(int player) {
+        return this.scores.get(player);
+    }
+
+    /*
+     * The points of the words the player won, counted from the claims themselves. Once
+     * the room is closed this is the player's final score, even while a claim that won
+     * its word just before the close has yet to add its points to getScore.
+     *
+     * @return int the points of the words the player has claimed
+     */
+    public int getClaimedScore(int player) {
+        int points = 0;
+        for (int id = 0; id < this.words.size(); id++) {
+            if (this.words.getClaimant(id) == player) points += this.words.getPoints(id);
+        }
+        return points;
+    }
+
+    /*
+     * @return List<String> the words the player has claimed, in the order they lie on the board's list
+     */
+    public List<String> getWords(int player) {
+        List<String> claimed = new ArrayList<String>();
+        for (int id = 0; id < this.words.size(); id++) {
+            if (this.words.getClaimant(id) == player) claimed.add(this.words.getWord(id));
+        }
+        return claimed;
+    }
+
+    /*
+     * @return List<String> the words no player has claimed (which are the computer's once the room is closed)
+     */
+    public List<String> getUnclaimedWords() {
+        List<String> unclaimed = new ArrayList<String>();
+        for (int id = 0; id < this.words.size(); id++) {
+            int claimant = this.words.getClaimant(id);
+            if (claimant == WordIndex.UNCLAIMED || claimant == COMPUTER) unclaimed.add(this.words.getWord(id));
+        }
+        return unclaimed;
+    }
+
+    /*
+     * @return int the number of players in the room
+     */
+    public int getPlayers() {
+        return Long.bitCount(this.seats.get());
+    }
+
+    /*
+     * @return int one more than the highest player number in use, or 0 if the room is empty
+     */
+    public int getSeats() {
+        return Long.SIZE - Long.numberOfLeadingZeros(this.seats.get());
+    }
+
+    /*
+     * @return BoggleGrid the board all players share
+     */
+    public BoggleGrid getGrid() {
+        return this.grid;
+    }
+
+    /*
+     * @return SolvedBoard every legal word on the board
+     */
+    public SolvedBoard getAllWords() {
+        return this.words.getAllWords();
+    }
+
+    /*
+     * Ends the round: no more players may join and no more words may be claimed, and the
+     * computer takes every word no player has claimed. Closing a closed room changes nothing.
+     *
+     * @return List<String> the words the computer took, in the order they lie on the board's list
+     */
+    public synchronized List<String> close() {
+        if (this.computerWords == null) {
+            this.closed = true;
+            List<String> taken = new ArrayList<String>();
+            for (int id = 0; id < this.words.size(); id++) {
+                if (this.words.claim(id, COMPUTER) == WordIndex.UNCLAIMED) taken.add(this.words.getWord(id));
+            }
+            this.computerWords = Collections.unmodifiableList(taken);
+        }
+        return this.computerWords;
+    }
+
+    /*
+     * @return boolean true once the round is over
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+}
@@ -0,0 +1,379 @@
+package boggle;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Serves any number of independent games over a socket, one GameSession per connection.
+ *
+ * The protocol is one line per command and one line per reply:
+ *   NEW [rowsxcols] [letters]  starts a round, on a random board unless letters are given;
+ *                              replies "BOARD rowsxcols LETTERS"
+ *   GUESS word, or just word   replies "OK WORD points total" or "NO WORD reason"
+ *   END                        ends the round; replies "END playerScore computerScore WORD,WORD,..."
+ *                              with the words the computer took
+ *   STATS                      replies "STATS rounds playerTotal computerTotal"
+ *   QUIT                       replies "BYE" and closes the connection
+ * A shape that is not rowsxcols, with 1 to 99 rows and columns, gets "ERR bad size".
+ * Anything else gets "ERR message". The server greets each connection with "BOGGLE 1".
+ *
+ * Players can also play together, in real time, in a named GameRoom:
+ *   JOIN room [rowsxcols]      joins the room (starting it on a random board if it is not
+ *                              running); replies "ROOM room player BOARD rowsxcols LETTERS"
+ *   GUESS word, or just word   claims the word; replies "OK WORD points score", or
+ *                              "NO WORD TAKEN" if another player claimed it first
+ *   SCORES                     replies "SCORES score0 score1 ..." by player number (0 for a
+ *                              number no one is using)
+ *   END                        ends the round for the whole room; replies
+ *                              "END score computerScore WORD,WORD,..." with the words no one claimed
+ *   LEAVE                      leaves the room, giving up the player's words and number, and
+ *                              goes back to playing alone (hanging up leaves too)
+ *
+ * Every connection is served by its own thread, which only blocks on its own socket. On
+ * a JDK with virtual threads (21 and later) those are virtual threads, so thousands of
+ * mostly idle players cost little more than their sessions; otherwise they are ordinary
+ * threads from a cached pool. All sessions share one Dictionary and one SolveCache.
+ */
+public class GameServer implements AutoCloseable {
+
+    /**
+     * port the server listens on unless told otherwise
+     */
+    public static final int DEFAULT_PORT = 4207;
+    /**
+     * boards kept in the shared solve cache
+     */
+    private static final int CACHE_CAPACITY = 4096;
+    /**
+     * connections left waiting to be accepted before more are refused, so that a burst
+     * of players joining at once is not turned away
+     */
+    private static final int BACKLOG = 4096;
+
+    /**
+     * dictionary of legal words, shared by every session
+     */
+    private final Dictionary boggleDict;
+    /**
+     * boards solved by any session
+     */
+    private final SolveCache solveCache = new SolveCache(CACHE_CAPACITY);
+    /**
+     * socket connections are accepted on
+     */
+    private final ServerSocket serverSocket;
+    /**
+     * runs one task per connection
+     */
+    private final ExecutorService connections = newThreadPerTaskExecutor();
+    /**
+     * connections open now, closed with the server
+     */
+    private final Set<Socket> open = ConcurrentHashMap.newKeySet();
+    /**
+     * rooms being played in, by name
+     */
+    private final ConcurrentHashMap<String, GameRoom> rooms = new ConcurrentHashMap<String, GameRoom>();
+
+    /**
+     * GameServer constructor
+     *
+     * @param boggleDict A dictionary of legal words
+     * @param port port to listen on, or 0 for any free port
+     */
+    public GameServer(Dictionary boggleDict, int port) throws IOException {
+        this.boggleDict = boggleDict;
+        this.serverSocket = new ServerSocket(port, BACKLOG);
+    }
+
+    /*
+     * @return ExecutorService an executor that starts a virtual thread per task if the JDK
+     * has them, or else a cached pool of ordinary threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "boggle-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /*
+     * @return int the port the server listens on
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /*
+     * @return int the number of connections open now
+     */
+    public int getOpenConnections() {
+        return this.open.size();
+    }
+
+    /*
+     * Accepts connections until the server is closed, serving each on its own thread.
+     */
+    public void serve() throws IOException {
+        while (!this.serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (SocketException e) {
+                return; // closed while waiting
+            }
+            this.connections.execute(() -> handle(socket));
+        }
+    }
+
+    /*
+     * Plays one session over a connection, until the client quits or hangs up.
+     */
+    private void handle(Socket socket) {
+        this.open.add(socket);
+        Client client = new Client(new GameSession(this.boggleDict, this.solveCache, ThreadLocalRandom.current().nextLong()));
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8)));
+            out.println("BOGGLE 1");
+            out.flush();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String reply = respond(client, line);
+                out.println(reply);
+                out.flush();
+                if (reply.equals("BYE")) break;
+            }
+        } catch (IOException e) {
+            // the client hung up
+        } finally {
+            this.open.remove(socket);
+            if (client.room != null) leaveRoom(client); // free their seat
+        }
+    }
+
+    /*
+     * Carries out one command of the protocol for a client.
+     *
+     * @param line the command, as the client sent it
+     * @return String the reply
+     */
+    private String respond(Client client, String line) {
+        String[] words = line.strip().split("\\s+");
+        String command = words[0].toUpperCase();
+        GameSession session = client.session;
+        try {
+            switch (command) {
+                case "NEW": {
+                    if (client.room != null) return "ERR LEAVE the room first";
+                    int[] shape = shape(words);
+                    if (shape == null) return "ERR bad size";
+                    BoggleGrid grid = words.length > 2 ? session.newRound(shape[0], shape[1], words[2]) : session.newRound(shape[0], shape[1]);
+                    return "BOARD " + shape[0] + "x" + shape[1] + " " + grid.getLetters().toUpperCase();
+                }
+                case "JOIN": {
+                    if (words.length < 2) return "ERR JOIN needs a room name";
+                    int[] shape = shape(Arrays.copyOfRange(words, 1, words.length));
+                    if (shape == null) return "ERR bad size";
+                    if (client.room != null) leaveRoom(client);
+                    return join(client, words[1], shape);
+                }
+                case "GUESS":
+                    if (words.length < 2) return "ERR GUESS needs a word";
+                    return guess(client, words[1]);
+                case "SCORES": {
+                    if (client.room == null) return "ERR not in a room";
+                    StringBuilder scores = new StringBuilder("SCORES");
+                    for (int i = 0; i < client.room.getSeats(); i++) scores.append(' ').append(client.room.getScore(i));
+                    return scores.toString();
+                }
+                case "END": {
+                    if (client.room != null) return endRoom(client);
+                    List<String> computerWords = session.endRound();
+                    return "END " + session.getPlayerScore() + " " + session.getComputerScore() + " " + String.join(",", computerWords);
+                }
+                case "LEAVE": {
+                    if (client.room == null) return "ERR not in a room";
+                    leaveRoom(client);
+                    return "LEFT " + client.roomName;
+                }
+                case "STATS":
+                    return "STATS " + session.getRounds() + " " + session.getPlayerTotal() + " " + session.getComputerTotal();
+                case "QUIT":
+                    return "BYE";
+                case "":
+                    return "ERR empty command";
+                default:
+                    if (words.length == 1 && command.chars().allMatch(Character::isLetter)) return guess(client, command);
+                    return "ERR unknown command " + command;
+            }
+        } catch (RuntimeException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    /*
+     * Reads the grid shape the same way the console does, so neither side of a board can
+     * be more than 99 letters long.
+     *
+     * @param words a command, with the grid shape (rowsxcols, 5x5 if left out) as its second word
+     * @return int[] the rows and columns, or null if the shape is not rowsxcols
+     */
+    private static int[] shape(String[] words) {
+        String shape = words.length > 1 ? words[1].toLowerCase() : "5x5";
+        if (!shape.matches("[1-9][0-9]?x[1-9][0-9]?")) return null;
+        return new int[]{Integer.parseInt(shape.split("x")[0]), Integer.parseInt(shape.split("x")[1])};
+    }
+
+    /*
+     * Seats a player in a room, starting a round there on a random board if none is running.
+     *
+     * @return String the reply to JOIN
+     */
+    private String join(Client client, String name, int[] shape) {
+        while (true) {
+            // solve outside the map: computeIfAbsent would hold a lock on other rooms for the
+            // whole solve. If another player started the room meanwhile, theirs is used
+            GameRoom room = this.rooms.get(name);
+            if (room == null) {
+                GameRoom started = newRoom(shape[0], shape[1]);
+                room = this.rooms.putIfAbsent(name, started);
+                if (room == null) room = started;
+            }
+            int number = room.join();
+            if (number >= 0) {
+                client.room = room;
+                client.roomName = name;
+                client.number = number;
+                BoggleGrid grid = room.getGrid();
+                return "ROOM " + name + " " + number + " BOARD " + grid.numRows() + "x" + grid.numCols() + " "
+                        + grid.getLetters().toUpperCase();
+            }
+            if (!room.isClosed()) return "ERR room " + name + " is full";
+            this.rooms.remove(name, room); // its round is over; start a new one
+        }
+    }
+
+    /*
+     * @return GameRoom a room playing a round on a random board
+     */
+    private GameRoom newRoom(int rows, int cols) {
+        BoggleGrid grid = new BoggleGrid(rows, cols);
+        grid.initalizeBoard(DiceSet.forBoard(rows, cols).roll(rows * cols));
+        SolvedBoard allWords = this.solveCache.get(this.boggleDict, grid);
+        if (allWords == null) {
+            allWords = new BoggleSolver(this.boggleDict).solve(grid);
+            this.solveCache.put(this.boggleDict, grid, allWords);
+        }
+        return new GameRoom(grid, allWords);
+    }
+
+    /*
+     * Ends the round in the player's room for everyone in it; the computer takes the words no one claimed.
+     *
+     * @return String the reply to END
+     */
+    private String endRoom(Client client) {
+        GameRoom room = client.room;
+        List<String> unclaimed = room.close();
+        this.rooms.remove(client.roomName, room);
+        client.room = null;
+        int computerScore = 0;
+        for (String word : unclaimed) computerScore += word.length() - 3;
+        return "END " + room.getClaimedScore(client.number) + " " + computerScore + " " + String.join(",", unclaimed);
+    }
+
+    /*
+     * Gives up the player's seat in their room, so another player can take it.
+     */
+    private static void leaveRoom(Client client) {
+        client.room.leave(client.number);
+        client.room = null;
+    }
+
+    /*
+     * @return String the reply to a guess, made alone or in the player's room
+     */
+    private static String guess(Client client, String word) {
+        String upper = word.toUpperCase();
+        if (client.room != null) {
+            GameRoom.Claim result = client.room.claim(client.number, upper);
+            if (result == GameRoom.Claim.CLAIMED) {
+                return "OK " + upper + " " + (upper.length() - 3) + " " + client.room.getScore(client.number);
+            }
+            return "NO " + upper + " " + result;
+        }
+        GameSession.Guess result = client.session.guess(upper);
+        if (result == GameSession.Guess.ACCEPTED) {
+            return "OK " + upper + " " + (upper.length() - 3) + " " + client.session.getPlayerScore();
+        }
+        return "NO " + upper + " " + result;
+    }
+
+    /*
+     * Stops accepting connections and ends every open session.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        for (Socket socket : this.open) socket.close();
+        this.connections.shutdownNow();
+    }
+
+    /*
+     * Serves games on the given port until the program is stopped.
+     */
+    public static void runAndReport(int port) throws IOException {
+        try (GameServer server = new GameServer(Dictionary.getInstance(), port)) {
+            System.err.println("Serving Boggle on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    /**
+     * What one connection is playing: its own game, and the room it is in, if any.
+     */
+    private static final class Client {
+        /**
+         * the connection's own game against the computer
+         */
+        private final GameSession session;
+        /**
+         * the room the connection is playing in, or null
+         */
+        private GameRoom room;
+        /**
+         * the name of that room
+         */
+        private String roomName;
+        /**
+         * the connection's player number in that room
+         */
+        private int number;
+
+        private Client(GameSession session) {
+            this.session = session;
+        }
+    }
+}
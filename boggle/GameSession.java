@@ -0,0 +1,224 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The state of one player's game against the computer, with no console or network I/O,
+ * so any number of games can be played in one process (see GameServer).
+ *
+ * A round starts with newRound, which rolls (or is given) a board and solves it; the
+ * player then guesses words, and endRound gives the computer every word the player
+ * missed. Scores are kept per round and in total. The Dictionary and SolveCache are
+ * shared between sessions; everything else belongs to the session, which should only
+ * be used by one thread at a time.
+ */
+public class GameSession {
+
+    /**
+     * outcome of a guess
+     */
+    public enum Guess {
+        ACCEPTED, TOO_SHORT, NOT_ON_BOARD, ALREADY_FOUND, NO_ROUND
+    }
+
+    /**
+     * claimants in the round's WordIndex
+     */
+    private static final int PLAYER = 0, COMPUTER = 1;
+
+    /**
+     * dictionary of legal words, shared by every session
+     */
+    private final Dictionary boggleDict;
+    /**
+     * solves the board of each round
+     */
+    private final BoggleSolver solver;
+    /**
+     * boards solved by any session, or null
+     */
+    private final SolveCache solveCache;
+    /**
+     * seeds this session's random boards
+     */
+    private final long seed;
+    /**
+     * rolls this session's random boards, or null until the first one
+     */
+    private BoardGenerator generator;
+    /**
+     * the dice the generator rolls, which depend on the board size
+     */
+    private DiceSet generatorDice;
+
+    /**
+     * the board of the current round, or null between rounds
+     */
+    private BoggleGrid grid;
+    /**
+     * every legal word on the current board, and who found it
+     */
+    private WordIndex words;
+    /**
+     * words the player found this round, in the order they were found
+     */
+    private final Set<String> playerWords = new LinkedHashSet<String>();
+    /**
+     * the player's and the computer's score this round
+     */
+    private int playerScore, computerScore;
+    /**
+     * the player's and the computer's score over every finished round
+     */
+    private int playerTotal, computerTotal;
+    /**
+     * number of finished rounds
+     */
+    private int rounds;
+
+    /**
+     * GameSession constructor
+     *
+     * @param boggleDict A dictionary of legal words
+     * @param solveCache boards solved before, shared with other sessions, or null
+     * @param seed seeds this session's random boards
+     */
+    public GameSession(Dictionary boggleDict, SolveCache solveCache, long seed) {
+        this.boggleDict = boggleDict;
+        this.solver = new BoggleSolver(boggleDict);
+        this.solveCache = solveCache;
+        this.seed = seed;
+    }
+
+    /*
+     * Starts a round on a random board, rolled with the standard dice for its size.
+     *
+     * @return BoggleGrid the board
+     */
+    public BoggleGrid newRound(int rows, int cols) {
+        DiceSet dice = DiceSet.forBoard(rows, cols);
+        if (dice != this.generatorDice) {
+            this.generator = new BoardGenerator(dice, this.seed);
+            this.generatorDice = dice;
+        }
+        return newRound(rows, cols, this.generator.next(rows * cols));
+    }
+
+    /*
+     * Starts a round on the given board. Any round still open is ended first.
+     *
+     * @param letters one letter per grid position, left to right, top to bottom
+     * @return BoggleGrid the board
+     */
+    public BoggleGrid newRound(int rows, int cols, String letters) {
+        if (letters.length() != rows * cols) {
+            throw new IllegalArgumentException(letters.length() + " letters do not fill a " + rows + "x" + cols + " board");
+        }
+        if (this.grid != null) endRound();
+        BoggleGrid grid = new BoggleGrid(rows, cols);
+        grid.initalizeBoard(letters.toUpperCase());
+        SolvedBoard allWords = this.solveCache == null ? null : this.solveCache.get(this.boggleDict, grid);
+        if (allWords == null) {
+            allWords = this.solver.solve(grid);
+            if (this.solveCache != null) this.solveCache.put(this.boggleDict, grid, allWords);
+        }
+        this.grid = grid;
+        this.words = new WordIndex(allWords);
+        this.playerWords.clear();
+        this.playerScore = 0;
+        this.computerScore = 0;
+        return grid;
+    }
+
+    /*
+     * Checks the player's guess, and scores it if it is a new word on the board.
+     *
+     * @param word the guess, in any case, without spaces
+     * @return Guess whether the word was accepted, and if not, why not
+     */
+    public Guess guess(String word) {
+        if (this.grid == null) return Guess.NO_ROUND;
+        if (word.length() < BoggleSolver.MIN_WORD_LENGTH) return Guess.TOO_SHORT;
+        int id = this.words.idOf(word);
+        if (id < 0) return Guess.NOT_ON_BOARD;
+        if (this.words.claim(id, PLAYER) != WordIndex.UNCLAIMED) return Guess.ALREADY_FOUND;
+        this.playerWords.add(this.words.getWord(id));
+        this.playerScore += this.words.getPoints(id);
+        return Guess.ACCEPTED;
+    }
+
+    /*
+     * Ends the round: the computer takes every word the player did not find.
+     *
+     * @return List<String> the computer's words, or an empty list if no round was open
+     */
+    public List<String> endRound() {
+        if (this.grid == null) return Collections.emptyList();
+        List<String> computerWords = new ArrayList<String>();
+        for (int id = 0; id < this.words.size(); id++) {
+            if (this.words.claim(id, COMPUTER) == WordIndex.UNCLAIMED) {
+                computerWords.add(this.words.getWord(id));
+                this.computerScore += this.words.getPoints(id);
+            }
+        }
+        this.playerTotal += this.playerScore;
+        this.computerTotal += this.computerScore;
+        this.rounds++;
+        this.grid = null;
+        this.words = null;
+        return computerWords;
+    }
+
+    /*
+     * @return BoggleGrid the board of the current round, or null between rounds
+     */
+    public BoggleGrid getGrid() {
+        return this.grid;
+    }
+
+    /*
+     * @return Set<String> the words the player found in the current (or last) round
+     */
+    public Set<String> getPlayerWords() {
+        return Collections.unmodifiableSet(this.playerWords);
+    }
+
+    /*
+     * @return int the player's score in the current (or last) round
+     */
+    public int getPlayerScore() {
+        return this.playerScore;
+    }
+
+    /*
+     * @return int the computer's score in the last round
+     */
+    public int getComputerScore() {
+        return this.computerScore;
+    }
+
+    /*
+     * @return int the player's score over every finished round
+     */
+    public int getPlayerTotal() {
+        return this.playerTotal;
+    }
+
+    /*
+     * @return int the computer's score over every finished round
+     */
+    public int getComputerTotal() {
+        return this.computerTotal;
+    }
+
+    /*
+     * @return int the number of finished rounds
+     */
+    public int getRounds() {
+        return this.rounds;
+    }
+}
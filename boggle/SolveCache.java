@@ -0,0 +1,154 @@
+package boggle;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of solved boards, so a board that has been
+ * solved before (a replayed saved game, or the same custom letters) skips the solve.
+ *
+ * Boards are keyed by the dictionary version, the grid shape and the board's letters
+ * in upper case, after turning the board to its canonical orientation (see BoardSymmetry),
+ * so a board also hits the cache when a rotation or mirror image of it was solved.
+ * Paths are stored on the canonical board and moved back onto the board asked for.
+ * The cache can be written to disk and loaded back, so it survives restarts.
+ */
+public class SolveCache {
+
+    /**
+     * file the game keeps its cache in between runs
+     */
+    public static final String CACHE_FILE = "solveCache.txt";
+
+    /**
+     * solved boards, least recently used first
+     */
+    private final LinkedHashMap<String, SolvedBoard> boards;
+
+    /**
+     * SolveCache constructor
+     *
+     * @param capacity the most boards to keep; the least recently used board is dropped beyond this
+     */
+    public SolveCache(int capacity) {
+        this.boards = new LinkedHashMap<String, SolvedBoard>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SolvedBoard> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /*
+     * @return String the cache key of a board solved against a dictionary
+     */
+    private static String key(Dictionary boggleDict, BoggleGrid boggleGrid) {
+        return boggleDict.version() + " > " + boggleGrid.numRows() + "x" + boggleGrid.numCols() + " > "
+                + boggleGrid.getLetters().toUpperCase();
+    }
+
+    /*
+     * @return SolvedBoard the words on the board, or null if it has not been solved
+     */
+    public SolvedBoard get(Dictionary boggleDict, BoggleGrid boggleGrid) {
+        BoardSymmetry symmetry = BoardSymmetry.of(boggleGrid);
+        SolvedBoard canonicalSolved;
+        synchronized (this) {
+            canonicalSolved = this.boards.get(key(boggleDict, symmetry.getCanonicalGrid()));
+        }
+        return canonicalSolved == null ? null : symmetry.toOriginal(canonicalSolved);
+    }
+
+    /*
+     * Remembers the words found on a board.
+     *
+     * @param solved all legal words on the board, with their paths
+     */
+    public void put(Dictionary boggleDict, BoggleGrid boggleGrid, SolvedBoard solved) {
+        BoardSymmetry symmetry = BoardSymmetry.of(boggleGrid);
+        SolvedBoard canonicalSolved = symmetry.toCanonical(solved);
+        synchronized (this) {
+            this.boards.put(key(boggleDict, symmetry.getCanonicalGrid()), canonicalSolved);
+        }
+    }
+
+    /*
+     * @return int the number of boards in the cache
+     */
+    public synchronized int size() {
+        return this.boards.size();
+    }
+
+    /*
+     * Writes the cache to a file, least recently used board first, one board per line:
+     * dictionary version > rowsxcols > letters > WORD@node:cell,cell,...;WORD@node:... where
+     * node is the word's trie node and each cell is numbered row * columns + column.
+     */
+    public synchronized void save(String filename) {
+        try {
+            FileWriter myWriter = new FileWriter(filename);
+            for (Map.Entry<String, SolvedBoard> board : this.boards.entrySet()) {
+                SolvedBoard solved = board.getValue();
+                StringBuilder line = new StringBuilder(board.getKey()).append(" > ");
+                for (int i = 0; i < solved.size(); i++) {
+                    line.append(solved.getWord(i)).append('@').append(solved.getNode(i)).append(':');
+                    for (int k = 0; k < solved.getPathLength(i); k++) {
+                        line.append(solved.getCell(i, k)).append(',');
+                    }
+                    line.setCharAt(line.length() - 1, ';');
+                }
+                myWriter.write(line.append('\n').toString());
+            }
+            myWriter.close();
+        } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+    }
+
+    /*
+     * Reads a cache written by save. A missing or unreadable file gives an empty cache,
+     * and lines that cannot be read are skipped.
+     *
+     * @return SolveCache the cache, holding at most capacity boards
+     */
+    public static SolveCache load(String filename, int capacity) {
+        SolveCache cache = new SolveCache(capacity);
+        if (!new File(filename).isFile()) return cache;
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(filename));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" > ", -1);
+                try {
+                    cache.boards.put(fields[0] + " > " + fields[1] + " > " + fields[2], parse(fields[1], fields[3]));
+                } catch (RuntimeException e) {
+                    // written by an older version of the game; it will be solved again when needed
+                }
+            }
+            reader.close();
+        } catch (IOException e) {
+            System.out.println("Could not read " + filename + ", starting with an empty solve cache.");
+        }
+        return cache;
+    }
+
+    /*
+     * @return SolvedBoard the words saved for one board
+     */
+    private static SolvedBoard parse(String shape, String words) {
+        SolvedBoard.Builder builder = new SolvedBoard.Builder(Integer.parseInt(shape.split("x")[0]),
+                Integer.parseInt(shape.split("x")[1]));
+        for (String word : words.split(";")) {
+            if (word.isEmpty()) continue;
+            String[] cells = word.substring(word.indexOf(':') + 1).split(",");
+            int[] path = new int[cells.length];
+            for (int k = 0; k < cells.length; k++) path[k] = Integer.parseInt(cells[k]);
+            builder.add(word.substring(0, word.indexOf('@')),
+                    Integer.parseInt(word.substring(word.indexOf('@') + 1, word.indexOf(':'))), path, path.length);
+        }
+        return builder.build();
+    }
+}
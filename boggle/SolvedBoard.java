@@ -0,0 +1,271 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All the legal words on a board, with the path that spells each one, in a compact form.
+ *
+ * Words are kept in the order the search found them, each with the id of its trie node
+ * in the Dictionary; an alphabetical index for looking words up is only built the first
+ * time a word is looked up. Paths are packed one after another into a single array of cell indices
+ * (row * numCols + col), one byte per cell on boards of up to 256 cells, so a solved
+ * board costs a few arrays rather than a list of Position objects per word.
+ * Positions are only created when a caller asks for a path.
+ */
+public class SolvedBoard {
+
+    /**
+     * the words, in the order they were found
+     */
+    private final String[] words;
+    /**
+     * trie node of each word in the Dictionary it was solved against
+     */
+    private final int[] nodes;
+    /**
+     * path of word i is cells pathStart[i] up to (not including) pathStart[i + 1]
+     */
+    private final int[] pathStart;
+    /**
+     * the packed paths on boards of up to 256 cells (read as unsigned), otherwise null
+     */
+    private final byte[] smallCells;
+    /**
+     * the packed paths on bigger boards, otherwise null
+     */
+    private final int[] cells;
+    /**
+     * number of rows on the board
+     */
+    private final int rows;
+    /**
+     * number of columns on the board
+     */
+    private final int cols;
+    /**
+     * positions of the words in alphabetical order, built on the first lookup
+     */
+    private volatile int[] alphabetical;
+
+    private SolvedBoard(String[] words, int[] nodes, int[] pathStart, byte[] smallCells, int[] cells, int rows, int cols) {
+        this.words = words;
+        this.nodes = nodes;
+        this.pathStart = pathStart;
+        this.smallCells = smallCells;
+        this.cells = cells;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /*
+     * @return int the number of words on the board
+     */
+    public int size() {
+        return this.words.length;
+    }
+
+    /*
+     * @return String word i, in the order the words were found
+     */
+    public String getWord(int i) {
+        return this.words[i];
+    }
+
+    /*
+     * @return int the trie node of word i in the Dictionary the board was solved against
+     */
+    public int getNode(int i) {
+        return this.nodes[i];
+    }
+
+    /*
+     * @return int the position of word in the list (case-sensitive, words are upper case), or -1 if it is not on the board
+     */
+    public int indexOf(String word) {
+        int[] order = this.alphabetical;
+        if (order == null) {
+            Integer[] sorted = new Integer[this.words.length];
+            for (int i = 0; i < sorted.length; i++) sorted[i] = i;
+            Arrays.sort(sorted, (a, b) -> this.words[a].compareTo(this.words[b]));
+            order = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) order[i] = sorted[i];
+            this.alphabetical = order;
+        }
+        int low = 0;
+        int high = order.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = this.words[order[mid]].compareTo(word);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return order[mid];
+        }
+        return -1;
+    }
+
+    /*
+     * @return boolean true if word (in upper case) can be found on the board
+     */
+    public boolean contains(String word) {
+        return indexOf(word) >= 0;
+    }
+
+    /*
+     * @return int the number of cells in the path of word i
+     */
+    public int getPathLength(int i) {
+        return this.pathStart[i + 1] - this.pathStart[i];
+    }
+
+    /*
+     * @return int the k-th cell (row * numCols + col) on the path of word i
+     */
+    public int getCell(int i, int k) {
+        int offset = this.pathStart[i] + k;
+        return this.smallCells != null ? this.smallCells[offset] & 0xFF : this.cells[offset];
+    }
+
+    /*
+     * @return ArrayList<Position> the path of word i, as grid Positions
+     */
+    public ArrayList<Position> getPath(int i) {
+        ArrayList<Position> path = new ArrayList<Position>(getPathLength(i));
+        for (int k = 0; k < getPathLength(i); k++) {
+            path.add(new Position(getCell(i, k) / this.cols, getCell(i, k) % this.cols));
+        }
+        return path;
+    }
+
+    /*
+     * @return int the number of rows on the board
+     */
+    public int numRows() {
+        return this.rows;
+    }
+
+    /*
+     * @return int the number of columns on the board
+     */
+    public int numCols() {
+        return this.cols;
+    }
+
+    /*
+     * @return int the score for finding every word on the board
+     */
+    public int maxScore() {
+        int score = 0;
+        for (String word : this.words) {
+            score += word.length() - 3;
+        }
+        return score;
+    }
+
+    /*
+     * @return Map<String, ArrayList<Position>> every word with its path, as a map
+     */
+    public Map<String, ArrayList<Position>> toMap() {
+        Map<String, ArrayList<Position>> allWords = new HashMap<String, ArrayList<Position>>();
+        for (int i = 0; i < size(); i++) {
+            allWords.put(this.words[i], getPath(i));
+        }
+        return allWords;
+    }
+
+    /*
+     * Moves every path onto another board of the same shape.
+     *
+     * @param moveCell moveCell[c] is the cell that cell c moves to
+     * @return SolvedBoard the same words, with their paths moved
+     */
+    SolvedBoard moveCells(int[] moveCell) {
+        byte[] movedSmall = null;
+        int[] moved = null;
+        if (this.smallCells != null) {
+            movedSmall = new byte[this.smallCells.length];
+            for (int k = 0; k < movedSmall.length; k++) movedSmall[k] = (byte) moveCell[this.smallCells[k] & 0xFF];
+        } else {
+            moved = new int[this.cells.length];
+            for (int k = 0; k < moved.length; k++) moved[k] = moveCell[this.cells[k]];
+        }
+        SolvedBoard movedBoard = new SolvedBoard(this.words, this.nodes, this.pathStart, movedSmall, moved, this.rows, this.cols);
+        movedBoard.alphabetical = this.alphabetical;
+        return movedBoard;
+    }
+
+    /**
+     * Collects words as they are found and packs them into a SolvedBoard.
+     * Only the first path added for each word is kept.
+     */
+    public static class Builder {
+        private final int rows;
+        private final int cols;
+        /**
+         * index of each word added so far
+         */
+        private final Map<String, Integer> index = new HashMap<String, Integer>();
+        private final ArrayList<String> words = new ArrayList<String>();
+        private int[] nodes = new int[64];
+        private int[] pathStart = new int[65];
+        private int[] cells = new int[256];
+
+        /**
+         * Builder constructor
+         *
+         * @param rows number of rows on the board
+         * @param cols number of columns on the board
+         */
+        public Builder(int rows, int cols) {
+            this.rows = rows;
+            this.cols = cols;
+        }
+
+        /*
+         * Adds a word, unless it was already added.
+         *
+         * @param word the word
+         * @param node the word's trie node
+         * @param path the cells spelling the word; the first length entries are used
+         * @param length the number of cells in the path
+         * @return boolean true if the word was added
+         */
+        public boolean add(String word, int node, int[] path, int length) {
+            if (this.index.putIfAbsent(word, this.words.size()) != null) return false;
+            int i = this.words.size();
+            this.words.add(word);
+            if (i + 1 == this.nodes.length) {
+                this.nodes = Arrays.copyOf(this.nodes, this.nodes.length * 2);
+                this.pathStart = Arrays.copyOf(this.pathStart, this.pathStart.length * 2);
+            }
+            this.nodes[i] = node;
+            int start = this.pathStart[i];
+            if (start + length > this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, Math.max(this.cells.length * 2, start + length));
+            }
+            System.arraycopy(path, 0, this.cells, start, length);
+            this.pathStart[i + 1] = start + length;
+            return true;
+        }
+
+        /*
+         * @return SolvedBoard the words added so far
+         */
+        public SolvedBoard build() {
+            int n = this.words.size();
+            int length = this.pathStart[n];
+            byte[] smallCells = null;
+            int[] packedCells = null;
+            if (this.rows * this.cols <= 256) {
+                smallCells = new byte[length];
+                for (int k = 0; k < length; k++) smallCells[k] = (byte) this.cells[k];
+            } else {
+                packedCells = Arrays.copyOf(this.cells, length);
+            }
+            return new SolvedBoard(this.words.toArray(new String[n]), Arrays.copyOf(this.nodes, n),
+                    Arrays.copyOf(this.pathStart, n + 1), smallCells, packedCells, this.rows, this.cols);
+        }
+    }
+}
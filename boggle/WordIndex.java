@@ -0,0 +1,163 @@
+package boggle;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The words of one solved board, indexed for checking guesses during a round.
+ *
+ * Each word on the board gets an id (its position in the SolvedBoard). A guess is looked
+ * up with one probe sequence in an open-addressing hash table, ignoring case, without
+ * creating any objects, and the id then gives the word's points and who has claimed it.
+ * Claims are kept in an AtomicIntegerArray and made with compareAndSet, so any number of
+ * threads can claim words at once, and each word is won by exactly one claimant.
+ *
+ * The table is built once, when the round starts, and is only read after that.
+ */
+public class WordIndex {
+
+    /**
+     * claimant of a word no one has claimed
+     */
+    public static final int UNCLAIMED = -1;
+
+    /**
+     * the words, by id
+     */
+    private final SolvedBoard allWords;
+    /**
+     * hash table of word ids plus one (0 is an empty slot); its length is a power of two
+     */
+    private final int[] slots;
+    /**
+     * hash of each word, by id, so most mismatches are rejected without comparing letters
+     */
+    private final int[] hashes;
+    /**
+     * points of each word, by id
+     */
+    private final int[] points;
+    /**
+     * who claimed each word, by id, or UNCLAIMED
+     */
+    private final AtomicIntegerArray claimedBy;
+
+    /**
+     * WordIndex constructor
+     *
+     * @param allWords every legal word on the board (in upper case)
+     */
+    public WordIndex(SolvedBoard allWords) {
+        this.allWords = allWords;
+        int size = allWords.size();
+        this.slots = new int[Integer.highestOneBit(Math.max(4, size * 2 - 1)) << 1];
+        this.hashes = new int[size];
+        this.points = new int[size];
+        this.claimedBy = new AtomicIntegerArray(size);
+        int mask = this.slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            String word = allWords.getWord(id);
+            this.hashes[id] = hash(word);
+            this.points[id] = word.length() - 3;
+            this.claimedBy.set(id, UNCLAIMED);
+            int slot = this.hashes[id] & mask;
+            while (this.slots[slot] != 0) slot = (slot + 1) & mask;
+            this.slots[slot] = id + 1;
+        }
+    }
+
+    /*
+     * @return int the hash of a word, the same for any mix of upper and lower case
+     */
+    private static int hash(CharSequence word) {
+        int h = 0;
+        for (int i = 0; i < word.length(); i++) h = 31 * h + upper(word.charAt(i));
+        return h ^ (h >>> 16);
+    }
+
+    private static char upper(char c) {
+        return c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+    }
+
+    /*
+     * @param word a guess, in any case
+     * @return int the id of the word, or -1 if it is not on the board
+     */
+    public int idOf(CharSequence word) {
+        int h = hash(word);
+        int mask = this.slots.length - 1;
+        for (int slot = h & mask; this.slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = this.slots[slot] - 1;
+            if (this.hashes[id] == h && matches(this.allWords.getWord(id), word)) return id;
+        }
+        return -1;
+    }
+
+    /*
+     * @return boolean true if guess spells word, ignoring case
+     */
+    private static boolean matches(String word, CharSequence guess) {
+        if (word.length() != guess.length()) return false;
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) != upper(guess.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /*
+     * @return int the number of words on the board
+     */
+    public int size() {
+        return this.points.length;
+    }
+
+    /*
+     * @return String the word with the given id, in upper case
+     */
+    public String getWord(int id) {
+        return this.allWords.getWord(id);
+    }
+
+    /*
+     * @return int the points the word with the given id scores
+     */
+    public int getPoints(int id) {
+        return this.points[id];
+    }
+
+    /*
+     * @return int who claimed the word with the given id, or UNCLAIMED
+     */
+    public int getClaimant(int id) {
+        return this.claimedBy.get(id);
+    }
+
+    /*
+     * Claims a word, unless someone already has.
+     *
+     * @param id the word's id
+     * @param claimant who is claiming it (any number but UNCLAIMED)
+     * @return int UNCLAIMED if the claim was won, otherwise who had already claimed the word
+     */
+    public int claim(int id, int claimant) {
+        if (this.claimedBy.compareAndSet(id, UNCLAIMED, claimant)) return UNCLAIMED;
+        return this.claimedBy.get(id);
+    }
+
+    /*
+     * Gives up a claim, so the word can be claimed again.
+     *
+     * @param id the word's id
+     * @param claimant who claimed it
+     * @return boolean true if the word was claimed by claimant, and is now unclaimed
+     */
+    public boolean release(int id, int claimant) {
+        return this.claimedBy.compareAndSet(id, claimant, UNCLAIMED);
+    }
+
+    /*
+     * @return SolvedBoard the words, with their paths
+     */
+    public SolvedBoard getAllWords() {
+        return this.allWords;
+    }
+}
@@ -1,31 +1,86 @@
 package storage;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
+import java.util.NoSuchElementException;
 
+/**
+ * Saved games, one per line of the save file, appended to as games are saved.
+ *
+ * Alongside the save file sits an index ("gameSave.txt.idx" for "gameSave.txt"): the
+ * byte offset where each saved game ends, as one 8 byte number per game. Counting the
+ * saves is then the size of the index, and retrieving save n reads two numbers from the
+ * index and one line from the save file, however many games have been saved.
+ * If the index is missing, or does not end where the save file does (e.g. the save file
+ * was edited by hand or written by an older version), it is rebuilt from the save file.
+ */
 public class GameStorage implements Storage{
+    /*
+     * bytes per offset in the index
+     */
+    private static final int OFFSET_BYTES = 8;
+    /*
+     * most bytes of the save file mapped into memory at once while rebuilding the index
+     */
+    private static final int MAP_WINDOW = 256 * 1024 * 1024;
     /*
      * stores all save data retrieved from file
      */
     private List<String> saveData;
+    /*
+     * file the games are kept in
+     */
+    private final String filename;
+    /*
+     * file the index of the saved games is kept in
+     */
+    private final String indexFilename;
 
     /*
-     * Formats and saves game to "gameSave.txt" file
+     * Keeps games in "gameSave.txt"
+     */
+    public GameStorage() {
+        this("gameSave.txt");
+    }
+
+    /*
+     * Keeps games in the given file instead, e.g. for a replayed test workload
+     */
+    public GameStorage(String filename) {
+        this.filename = filename;
+        this.indexFilename = filename + ".idx";
+    }
+
+    /*
+     * Formats and saves game to the save file, and records where it ends in the index
      */
     @Override
     public void save(List<String> gameInfo){
-        File myObj = new File("gameSave.txt");
+        byte[] record = ("* " + gameInfo.get(0) + " > " +
+                gameInfo.get(1).replace("\n", "").replace(" ", "") +
+                (gameInfo.size() > 2 ? " > " + gameInfo.get(2) : "") //grid shape, as rows x columns
+                + "\n").getBytes(StandardCharsets.UTF_8);
         try {
-            myObj.createNewFile();
-            FileWriter myWriter = new FileWriter("gameSave.txt", true);
-            myWriter.write("* " + gameInfo.get(0) + " > " +
-                    gameInfo.get(1).replace("\n", "").replace(" ", "")
-                    + "\n"); myWriter.close();
+            checkIndex();
+            long end;
+            try (FileChannel data = FileChannel.open(Paths.get(this.filename), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                data.write(ByteBuffer.wrap(record));
+                end = data.size();
+            }
+            try (FileChannel index = FileChannel.open(Paths.get(this.indexFilename), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                index.write(ByteBuffer.allocate(OFFSET_BYTES).putLong(0, end));
+            }
             System.out.println("Successfully Saved Game!");
         } catch (IOException e){System.out.println("An error occurred."); e.printStackTrace();}
     }
@@ -34,31 +89,96 @@ public class GameStorage implements Storage{
      * @return int number of games saved to file
      */
     public int numberOfSaves(){
-        File myObj = new File("gameSave.txt");
-        if(myObj.exists() && !myObj.isDirectory()) {
-            try {
-                Scanner myReader = new Scanner(myObj);
-                int counter = 0;
-                while (myReader.hasNextLine()) {myReader.nextLine(); counter++;}
-                myReader.close(); return counter;
-            } catch (FileNotFoundException e) {System.out.println("An error occurred."); e.printStackTrace();}
-        } return 0;
+        if (!new File(this.filename).isFile()) return 0;
+        try {
+            checkIndex();
+            return (int) (new File(this.indexFilename).length() / OFFSET_BYTES);
+        } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+        return 0;
     }
 
     /*
      * Retrieves and assigns requested saved game data from
-     * the "gameSave.txt" file to saveData attribute
+     * the save file to saveData attribute
+     *
+     * @param saveNumber which save to retrieve, counting from 1
      */
     @Override
     public void retrieve(int saveNumber){
-        try {
-            File myObj = new File("gameSave.txt");
-            Scanner myReader = new Scanner(myObj);
-            int counter = 1;
-            while (myReader.hasNextLine() && counter != saveNumber) {myReader.nextLine(); counter++;}
-            String roundSave = myReader.nextLine(); myReader.close();
-            this.saveData = Arrays.asList(roundSave.replace("\n", "").substring(2).split(" > "));
-        } catch (FileNotFoundException e) {System.out.println("An error occurred."); e.printStackTrace();}
+        if (saveNumber < 1 || saveNumber > numberOfSaves()) throw new NoSuchElementException("No saved game " + saveNumber);
+        try (FileChannel index = FileChannel.open(Paths.get(this.indexFilename), StandardOpenOption.READ);
+             FileChannel data = FileChannel.open(Paths.get(this.filename), StandardOpenOption.READ)) {
+            long start = saveNumber == 1 ? 0 : readOffset(index, saveNumber - 2);
+            long end = readOffset(index, saveNumber - 1);
+            ByteBuffer line = ByteBuffer.allocate((int) (end - start));
+            while (line.hasRemaining() && data.read(line, start + line.position()) >= 0);
+            String roundSave = new String(line.array(), 0, line.position(), StandardCharsets.UTF_8);
+            this.saveData = Arrays.asList(roundSave.replace("\n", "").replace("\r", "").substring(2).split(" > "));
+        } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+    }
+
+    /*
+     * @return long the offset at which save i (counting from 0) ends
+     */
+    private static long readOffset(FileChannel index, long i) throws IOException {
+        ByteBuffer offset = ByteBuffer.allocate(OFFSET_BYTES);
+        while (offset.hasRemaining() && index.read(offset, i * OFFSET_BYTES + offset.position()) >= 0);
+        return offset.getLong(0);
+    }
+
+    /*
+     * Makes sure the index matches the save file: it must hold whole offsets, and the
+     * last one must be the end of the save file. Otherwise the index is rebuilt by
+     * scanning the save file, mapped into memory, once for line breaks.
+     */
+    private void checkIndex() throws IOException {
+        Path data = Paths.get(this.filename);
+        Path indexPath = Paths.get(this.indexFilename);
+        long dataLength = data.toFile().isFile() ? data.toFile().length() : 0;
+        if (indexPath.toFile().isFile()) {
+            try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                long size = index.size();
+                if (size % OFFSET_BYTES == 0
+                        && (size == 0 ? dataLength == 0 : readOffset(index, size / OFFSET_BYTES - 1) == dataLength)) {
+                    return;
+                }
+            }
+        }
+
+        ByteBuffer offsets = ByteBuffer.allocate(1024 * OFFSET_BYTES);
+        try (FileChannel index = FileChannel.open(indexPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (dataLength > 0) {
+                try (FileChannel channel = FileChannel.open(data, StandardOpenOption.READ)) {
+                    long position = 0;
+                    long lastEnd = 0;
+                    while (position < dataLength) {
+                        int window = (int) Math.min(dataLength - position, MAP_WINDOW);
+                        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+                        for (int i = 0; i < window; i++) {
+                            if (buffer.get(i) == '\n') {
+                                if (!offsets.hasRemaining()) flush(index, offsets);
+                                lastEnd = position + i + 1;
+                                offsets.putLong(lastEnd);
+                            }
+                        }
+                        position += window;
+                    }
+                    if (lastEnd != position) {
+                        // the last line has no line break, but is still a saved game
+                        if (!offsets.hasRemaining()) flush(index, offsets);
+                        offsets.putLong(position);
+                    }
+                }
+            }
+            flush(index, offsets);
+        }
+    }
+
+    private static void flush(FileChannel index, ByteBuffer offsets) throws IOException {
+        offsets.flip();
+        while (offsets.hasRemaining()) index.write(offsets);
+        offsets.clear();
     }
 
     /*
@@ -0,0 +1,153 @@
+package storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view of one ScoreRecord where it lies in a (memory-mapped) score file.
+ *
+ * Fields are read straight from the buffer when they are asked for, so scanning a
+ * history for its scores and word counts creates no Strings at all; words are only
+ * decoded by getPlayerWords, getComputerWords and toRecord. A cursor is moved from one
+ * record to the next by ScoreStorage.scan, so it must not be kept after the call that
+ * received it returns (keep toRecord() instead).
+ */
+public class ScoreCursor {
+
+    /**
+     * the buffer the record is in
+     */
+    private ByteBuffer buffer;
+    /**
+     * where the record's body (everything after its length) starts in the buffer
+     */
+    private int start;
+    /**
+     * where the computer's words start, or -1 until they are first needed
+     */
+    private int computerStart;
+
+    /*
+     * Moves the cursor onto the record whose body starts at start.
+     */
+    void moveTo(ByteBuffer buffer, int start) {
+        this.buffer = buffer;
+        this.start = start;
+        this.computerStart = -1;
+    }
+
+    /*
+     * @return int the round number within its game
+     */
+    public int getRound() {
+        return this.buffer.getInt(this.start);
+    }
+
+    /*
+     * @return int the player's score for the round
+     */
+    public int getPlayerScore() {
+        return this.buffer.getInt(this.start + 4);
+    }
+
+    /*
+     * @return int the computer's score for the round
+     */
+    public int getComputerScore() {
+        return this.buffer.getInt(this.start + 8);
+    }
+
+    /*
+     * @return int the number of words the player found
+     */
+    public int getPlayerWordCount() {
+        return this.buffer.getInt(this.start + 12);
+    }
+
+    /*
+     * @return int the number of words the computer found
+     */
+    public int getComputerWordCount() {
+        return this.buffer.getInt(computerStart());
+    }
+
+    /*
+     * @return List<String> the words the player found
+     */
+    public List<String> getPlayerWords() {
+        return words(this.start + 12);
+    }
+
+    /*
+     * @return List<String> the words the computer found
+     */
+    public List<String> getComputerWords() {
+        return words(computerStart());
+    }
+
+    /*
+     * @return ScoreRecord a copy of the record, which can be kept
+     */
+    public ScoreRecord toRecord() {
+        return new ScoreRecord(getPlayerWords(), getComputerWords(), getPlayerScore(), getComputerScore(), getRound());
+    }
+
+    /*
+     * @return int where the computer's word list starts, found by skipping the player's words
+     */
+    private int computerStart() {
+        if (this.computerStart < 0) {
+            int position = this.start + 12;
+            int count = this.buffer.getInt(position);
+            position += 4;
+            for (int i = 0; i < count; i++) {
+                position += 2 + (this.buffer.getShort(position) & 0xFFFF);
+            }
+            this.computerStart = position;
+        }
+        return this.computerStart;
+    }
+
+    /*
+     * @return List<String> the words in the list (a count, then writeUTF words) starting at position
+     */
+    private List<String> words(int position) {
+        int count = this.buffer.getInt(position);
+        position += 4;
+        List<String> words = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            int length = this.buffer.getShort(position) & 0xFFFF;
+            words.add(decode(position + 2, length));
+            position += 2 + length;
+        }
+        return words;
+    }
+
+    /*
+     * @return String the word whose modified UTF-8 bytes are at position
+     */
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        this.buffer.get(position, bytes);
+        boolean ascii = true;
+        for (byte b : bytes) {
+            if (b <= 0) ascii = false; // modified UTF-8 never has a zero byte; b < 0 is multi-byte
+        }
+        if (ascii) return new String(bytes, StandardCharsets.ISO_8859_1);
+        byte[] utf = new byte[length + 2];
+        utf[0] = (byte) (length >>> 8);
+        utf[1] = (byte) length;
+        System.arraycopy(bytes, 0, utf, 2, length);
+        try {
+            return new DataInputStream(new ByteArrayInputStream(utf)).readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
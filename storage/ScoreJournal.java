@@ -0,0 +1,193 @@
+package storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind journal for one score file.
+ *
+ * Records are collected in memory and appended to the file together, through a channel
+ * that stays open for the life of the program, once MAX_RECORDS records or MAX_BYTES
+ * bytes are waiting, or MAX_DELAY_MILLIS after the first of them arrived, whichever
+ * comes first. flush() writes whatever is waiting straight away. So if the program dies,
+ * at most one such batch of records is lost. Every journal is flushed when the program exits.
+ *
+ * Before writing, the journal checks that the file still ends where its last write ended.
+ * If it does not (the first write after the program starts, or the file was changed
+ * behind its back), it walks the records' length prefixes in the file mapped into
+ * memory and cuts off anything after the last complete record, such as one torn by a
+ * crash, so new records always start on a record boundary and every record after a
+ * torn one can still be read.
+ *
+ * There is one journal per file, shared by every ScoreStorage that uses the file.
+ */
+class ScoreJournal {
+
+    /**
+     * most records kept waiting before they are written
+     */
+    static final int MAX_RECORDS = 64;
+    /**
+     * most bytes kept waiting before they are written
+     */
+    static final int MAX_BYTES = 64 * 1024;
+    /**
+     * longest a record is kept waiting before it is written
+     */
+    static final long MAX_DELAY_MILLIS = 1000;
+
+    /**
+     * the journal of every file written to so far, by absolute path
+     */
+    private static final Map<String, ScoreJournal> JOURNALS = new ConcurrentHashMap<String, ScoreJournal>();
+    /**
+     * writes out records that have waited MAX_DELAY_MILLIS
+     */
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "score-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (ScoreJournal journal : JOURNALS.values()) journal.close();
+        }));
+    }
+
+    /**
+     * the score file
+     */
+    private final String filename;
+    /**
+     * channel writing to the score file, opened on the first write
+     */
+    private FileChannel channel;
+    /**
+     * where the file's last complete record ends, as of the last write, or -1 until checked
+     */
+    private long end = -1;
+    /**
+     * written at the start of the file when the journal creates it
+     */
+    private final byte[] header;
+    /**
+     * records waiting to be written
+     */
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    /**
+     * number of records waiting to be written
+     */
+    private int pendingRecords;
+
+    private ScoreJournal(String filename, byte[] header) {
+        this.filename = filename;
+        this.header = header;
+    }
+
+    /*
+     * @param header written at the start of the file, if the journal is the one to create it
+     * @return ScoreJournal the journal for a score file
+     */
+    static ScoreJournal of(String filename, byte[] header) {
+        return JOURNALS.computeIfAbsent(new File(filename).getAbsolutePath(), path -> new ScoreJournal(path, header));
+    }
+
+    /*
+     * Queues one record to be appended to the file.
+     */
+    synchronized void append(byte[] record) throws IOException {
+        if (this.pendingRecords == 0) {
+            FLUSHER.schedule(() -> {
+                try {
+                    flush();
+                } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+            }, MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        this.pending.write(record);
+        this.pendingRecords++;
+        if (this.pendingRecords >= MAX_RECORDS || this.pending.size() >= MAX_BYTES) flush();
+    }
+
+    /*
+     * Writes every waiting record to the file.
+     */
+    synchronized void flush() throws IOException {
+        if (this.pendingRecords == 0) return;
+        if (this.channel == null) {
+            this.channel = FileChannel.open(Paths.get(this.filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.READ);
+        }
+        long size = this.channel.size();
+        if (size == 0) {
+            this.end = 0;
+            write(this.header);
+        } else if (size != this.end) {
+            long from = this.end >= this.header.length && this.end < size ? this.end : this.header.length;
+            this.end = lastRecordEnd(from, size);
+            if (this.end < size) this.channel.truncate(this.end);
+        }
+        write(this.pending.toByteArray());
+        this.pending.reset();
+        this.pendingRecords = 0;
+    }
+
+    /*
+     * Walks the length prefixes of the records from a record boundary, in the file mapped
+     * into memory (ScoreStorage.MAP_WINDOW bytes at a time), so a long score history
+     * costs one mapping rather than a read per record.
+     *
+     * @param from where a record starts
+     * @param size the size of the file
+     * @return long where the last complete record ends
+     */
+    private long lastRecordEnd(long from, long size) throws IOException {
+        long position = from;
+        while (position + 4 <= size) {
+            long window = Math.min(size - position, ScoreStorage.MAP_WINDOW);
+            ByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+            int offset = 0;
+            while (offset + 4 <= window) {
+                int bytes = mapped.getInt(offset);
+                if (bytes < 0 || position + offset + 4 + bytes > size) {
+                    return Math.max(position + offset, Math.min(this.header.length, size));
+                }
+                if (offset + 4L + bytes > window) break; // the record runs past the window
+                offset += 4 + bytes;
+            }
+            if (offset == 0) offset = 4 + mapped.getInt(0); // a record longer than a whole window
+            position += offset;
+        }
+        return Math.max(position, Math.min(this.header.length, size));
+    }
+
+    /*
+     * Writes bytes where the last complete record ends.
+     */
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) this.end += this.channel.write(buffer, this.end);
+    }
+
+    /*
+     * Flushes, and closes the channel until the next write. Called when the file is about
+     * to be read or replaced, and when the program exits.
+     */
+    synchronized void close() {
+        try {
+            flush();
+            if (this.channel != null) this.channel.close();
+        } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
+        this.channel = null;
+    }
+}
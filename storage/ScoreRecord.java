@@ -0,0 +1,164 @@
+package storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The score of one round, as saved in the score file.
+ *
+ * In the file each round is one record: its length in bytes (4 bytes), then the round
+ * number, the player's score and the computer's score (4 bytes each), then the player's
+ * words and the computer's words, each list as a count (4 bytes) followed by every word
+ * in modified UTF-8 with its 2 byte length (as DataOutputStream.writeUTF). All numbers
+ * are big-endian. Words never need escaping, and a record cut short by a crash is
+ * recognized by its length: readers stop before it, and the next write replaces it
+ * (see ScoreJournal).
+ */
+public class ScoreRecord {
+
+    /**
+     * words the player found in the round
+     */
+    private final List<String> playerWords;
+    /**
+     * words the computer found in the round
+     */
+    private final List<String> computerWords;
+    /**
+     * the player's score for the round
+     */
+    private final int playerScore;
+    /**
+     * the computer's score for the round
+     */
+    private final int computerScore;
+    /**
+     * the round number within its game
+     */
+    private final int round;
+
+    /**
+     * ScoreRecord constructor
+     *
+     * @param playerWords words the player found in the round
+     * @param computerWords words the computer found in the round
+     * @param playerScore the player's score for the round
+     * @param computerScore the computer's score for the round
+     * @param round the round number within its game
+     */
+    public ScoreRecord(Collection<String> playerWords, Collection<String> computerWords,
+                       int playerScore, int computerScore, int round) {
+        this.playerWords = Collections.unmodifiableList(new ArrayList<String>(playerWords));
+        this.computerWords = Collections.unmodifiableList(new ArrayList<String>(computerWords));
+        this.playerScore = playerScore;
+        this.computerScore = computerScore;
+        this.round = round;
+    }
+
+    /*
+     * Reads a round in the old text form: player words > computer words > player score >
+     * computer score > round #, where each word list is written as "[WORD, WORD]".
+     *
+     * @param fields the five fields of a round
+     * @return ScoreRecord the round
+     */
+    public static ScoreRecord fromFields(List<String> fields) {
+        return new ScoreRecord(parseWords(fields.get(0)), parseWords(fields.get(1)),
+                Integer.parseInt(fields.get(2).strip()), Integer.parseInt(fields.get(3).strip()),
+                Integer.parseInt(fields.get(4).strip()));
+    }
+
+    /*
+     * @return List<String> the words in a list written as "[WORD, WORD]"
+     */
+    private static List<String> parseWords(String list) {
+        String words = list.strip();
+        if (words.startsWith("[")) words = words.substring(1);
+        if (words.endsWith("]")) words = words.substring(0, words.length() - 1);
+        List<String> parsed = new ArrayList<String>();
+        for (String word : words.split(",")) {
+            if (!word.isBlank()) parsed.add(word.strip());
+        }
+        return parsed;
+    }
+
+    /*
+     * @return List<String> the round in the old text form's five fields, for display
+     */
+    public List<String> toFields() {
+        return Arrays.asList(this.playerWords.toString(), this.computerWords.toString(),
+                Integer.toString(this.playerScore), Integer.toString(this.computerScore), Integer.toString(this.round));
+    }
+
+    /*
+     * @return byte[] the record, with its length in front, as written to the score file
+     */
+    byte[] toBytes() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0); // the length, filled in below
+            out.writeInt(this.round);
+            out.writeInt(this.playerScore);
+            out.writeInt(this.computerScore);
+            writeWords(out, this.playerWords);
+            writeWords(out, this.computerWords);
+            out.flush();
+            byte[] record = bytes.toByteArray();
+            int length = record.length - 4;
+            record[0] = (byte) (length >>> 24);
+            record[1] = (byte) (length >>> 16);
+            record[2] = (byte) (length >>> 8);
+            record[3] = (byte) length;
+            return record;
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // writing to memory cannot fail
+        }
+    }
+
+    private static void writeWords(DataOutputStream out, List<String> words) throws IOException {
+        out.writeInt(words.size());
+        for (String word : words) out.writeUTF(word);
+    }
+
+    /*
+     * @return List<String> words the player found in the round
+     */
+    public List<String> getPlayerWords() {
+        return this.playerWords;
+    }
+
+    /*
+     * @return List<String> words the computer found in the round
+     */
+    public List<String> getComputerWords() {
+        return this.computerWords;
+    }
+
+    /*
+     * @return int the player's score for the round
+     */
+    public int getPlayerScore() {
+        return this.playerScore;
+    }
+
+    /*
+     * @return int the computer's score for the round
+     */
+    public int getComputerScore() {
+        return this.computerScore;
+    }
+
+    /*
+     * @return int the round number within its game
+     */
+    public int getRound() {
+        return this.round;
+    }
+}
@@ -0,0 +1,247 @@
+package storage;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Summarizes a score history in one pass over the score file (see ScoreStorage.forEach).
+ *
+ * Each round is parsed once, as it is read, into running totals: rounds played, total
+ * and average scores and words for the player and the computer, the best rounds, how
+ * often the player found each word, and how the player's score is trending (the slope
+ * of a least-squares line through the scores, and the average of the last few rounds).
+ * Only the best topN rounds are kept, and the word counts are bounded by the
+ * dictionary, so the memory used does not grow with the length of the history.
+ */
+public class ScoreReport {
+
+    /**
+     * number of most recent rounds averaged for the recent form
+     */
+    public static final int RECENT_ROUNDS = 10;
+
+    /**
+     * number of best rounds and most found words to keep
+     */
+    private final int topN;
+    /**
+     * rounds read so far
+     */
+    private int rounds;
+    /**
+     * total scores and words over every round
+     */
+    private long playerScore, computerScore, playerWords, computerWords;
+    /**
+     * sums for the least-squares line through the player's scores, by round read
+     */
+    private double sumX, sumY, sumXY, sumXX;
+    /**
+     * the player's scores in the most recent rounds, as a ring
+     */
+    private final int[] recent = new int[RECENT_ROUNDS];
+    /**
+     * the best topN rounds so far, worst first
+     */
+    private final PriorityQueue<ScoreRecord> best;
+    /**
+     * number of rounds in which the player found each word
+     */
+    private final Map<String, Integer> wordCounts = new HashMap<String, Integer>();
+
+    /**
+     * ScoreReport constructor
+     *
+     * @param topN number of best rounds and most found words to report
+     */
+    public ScoreReport(int topN) {
+        this.topN = topN;
+        this.best = new PriorityQueue<ScoreRecord>(Math.max(1, topN + 1),
+                Comparator.comparingInt(ScoreRecord::getPlayerScore));
+    }
+
+    /*
+     * Adds one round in the old text form: player words > computer words > player score >
+     * computer score > round #
+     */
+    public void add(String record) {
+        add(ScoreRecord.fromFields(Arrays.asList(record.split(" > "))));
+    }
+
+    /*
+     * Adds one saved round.
+     */
+    public void add(ScoreRecord round) {
+        count(round.getPlayerScore(), round.getComputerScore(), round.getPlayerWords(), round.getComputerWords().size());
+        if (isBest(round.getPlayerScore())) keepBest(round);
+    }
+
+    /*
+     * Adds one saved round, as read from the score file; only the player's words are
+     * decoded, and the whole round only if it is one of the best.
+     */
+    public void add(ScoreCursor round) {
+        count(round.getPlayerScore(), round.getComputerScore(), round.getPlayerWords(), round.getComputerWordCount());
+        if (isBest(round.getPlayerScore())) keepBest(round.toRecord());
+    }
+
+    private void count(int score, int computerScore, List<String> playerWords, int computerWords) {
+        this.playerScore += score;
+        this.computerScore += computerScore;
+        this.playerWords += playerWords.size();
+        this.computerWords += computerWords;
+        for (String word : playerWords) this.wordCounts.merge(word, 1, Integer::sum);
+
+        this.sumX += this.rounds;
+        this.sumY += score;
+        this.sumXY += (double) this.rounds * score;
+        this.sumXX += (double) this.rounds * this.rounds;
+        this.recent[this.rounds % RECENT_ROUNDS] = score;
+        this.rounds++;
+    }
+
+    /*
+     * @return boolean true if a round with this player score belongs among the best rounds so far
+     */
+    private boolean isBest(int score) {
+        return this.topN > 0 && (this.best.size() < this.topN || score > this.best.peek().getPlayerScore());
+    }
+
+    private void keepBest(ScoreRecord round) {
+        this.best.add(round);
+        if (this.best.size() > this.topN) this.best.poll();
+    }
+
+    /*
+     * Counts the words in a word list written as "[HOST, GHOST]", without splitting it.
+     *
+     * @return int the number of words in the list
+     */
+    static int countWords(String list) {
+        int start = list.startsWith("[") ? 1 : 0;
+        int end = list.endsWith("]") ? list.length() - 1 : list.length();
+        int words = 0;
+        while (start < end) {
+            int comma = list.indexOf(',', start);
+            if (comma < 0 || comma > end) comma = end;
+            if (!list.substring(start, comma).isBlank()) words++;
+            start = comma + 1;
+        }
+        return words;
+    }
+
+    /*
+     * @return int the number of rounds read
+     */
+    public int getRounds() {
+        return this.rounds;
+    }
+
+    /*
+     * @return long the player's total score over every round
+     */
+    public long getPlayerScore() {
+        return this.playerScore;
+    }
+
+    /*
+     * @return long the computer's total score over every round
+     */
+    public long getComputerScore() {
+        return this.computerScore;
+    }
+
+    /*
+     * @return double the player's average score per round
+     */
+    public double getPlayerAverage() {
+        return this.rounds == 0 ? 0 : (double) this.playerScore / this.rounds;
+    }
+
+    /*
+     * @return double the computer's average score per round
+     */
+    public double getComputerAverage() {
+        return this.rounds == 0 ? 0 : (double) this.computerScore / this.rounds;
+    }
+
+    /*
+     * @return double the average number of words the player found per round
+     */
+    public double getPlayerWordsAverage() {
+        return this.rounds == 0 ? 0 : (double) this.playerWords / this.rounds;
+    }
+
+    /*
+     * @return double the average number of words the computer found per round
+     */
+    public double getComputerWordsAverage() {
+        return this.rounds == 0 ? 0 : (double) this.computerWords / this.rounds;
+    }
+
+    /*
+     * @return double how many points the player's score goes up (or down) per round, on average
+     */
+    public double getTrend() {
+        double denominator = this.rounds * this.sumXX - this.sumX * this.sumX;
+        return denominator == 0 ? 0 : (this.rounds * this.sumXY - this.sumX * this.sumY) / denominator;
+    }
+
+    /*
+     * @return double the player's average score over the last RECENT_ROUNDS rounds
+     */
+    public double getRecentAverage() {
+        int n = Math.min(this.rounds, RECENT_ROUNDS);
+        double total = 0;
+        for (int i = 0; i < n; i++) total += this.recent[i];
+        return n == 0 ? 0 : total / n;
+    }
+
+    /*
+     * @return List<ScoreRecord> the topN best rounds by player score, best first
+     */
+    public List<ScoreRecord> getBestRounds() {
+        List<ScoreRecord> rounds = new ArrayList<ScoreRecord>(this.best);
+        rounds.sort(Comparator.comparingInt(ScoreRecord::getPlayerScore).reversed());
+        return rounds;
+    }
+
+    /*
+     * @return List<Map.Entry<String, Integer>> the topN words the player found most often, with their counts
+     */
+    public List<Map.Entry<String, Integer>> getTopWords() {
+        PriorityQueue<Map.Entry<String, Integer>> top = new PriorityQueue<Map.Entry<String, Integer>>(
+                Math.max(1, this.topN + 1), Map.Entry.comparingByValue());
+        for (Map.Entry<String, Integer> word : this.wordCounts.entrySet()) {
+            top.add(word);
+            if (top.size() > this.topN) top.poll();
+        }
+        List<Map.Entry<String, Integer>> words = new ArrayList<Map.Entry<String, Integer>>(top);
+        words.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return words;
+    }
+
+    /*
+     * Prints the summary, and the most found words.
+     */
+    public void print(PrintStream out) {
+        out.println("Rounds Played: " + this.rounds);
+        out.println("Total Player Score: " + this.playerScore);
+        out.println("Total Computer Score: " + this.computerScore);
+        out.printf("Average Score (Player): %.2f%n", getPlayerAverage());
+        out.printf("Average Score (Computer): %.2f%n", getComputerAverage());
+        out.printf("Average Number Of Words (Player): %.2f%n", getPlayerWordsAverage());
+        out.printf("Average Number Of Words (Computer): %.2f%n", getComputerWordsAverage());
+        out.printf("Player Score Trend: %+.3f points per round%n", getTrend());
+        out.printf("Average Player Score (last %d rounds): %.2f%n", Math.min(this.rounds, RECENT_ROUNDS), getRecentAverage());
+        if (this.topN <= 0) return;
+        out.println("Most Found Words (Player): " + getTopWords());
+    }
+}
@@ -1,32 +1,144 @@
 package storage;
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Scanner;
+import java.util.function.Consumer;
 
+/**
+ * The score of every round played, kept as binary ScoreRecords in the score file.
+ *
+ * The file starts with MAGIC and FORMAT_VERSION (4 bytes each), followed by one record
+ * per round. Scores used to be kept as text, one round per line of "scoreSave.txt";
+ * the first time the default score file is used, the rounds in that file are copied
+ * into it, and the text file is left as it was.
+ */
 public class ScoreStorage implements Storage{
+    /*
+     * "BGSC", the first 4 bytes of a score file
+     */
+    public static final int MAGIC = 0x42475343;
+    /*
+     * version of the score file format
+     */
+    public static final int FORMAT_VERSION = 1;
+    /*
+     * bytes before the first record
+     */
+    static final int HEADER_BYTES = 8;
+    /*
+     * most bytes of a score file mapped into memory at once
+     */
+    static final int MAP_WINDOW = 256 * 1024 * 1024;
+
     /*
      * stores all save data retrieved from file
      */
     private List<String> saveData;
+    /*
+     * file the scores are kept in
+     */
+    private final String filename;
+    /*
+     * text file scores were kept in before, or null
+     */
+    private final String legacyFilename;
+
+    /*
+     * Keeps scores in "scoreSave.bin", starting from those in "scoreSave.txt"
+     */
+    public ScoreStorage() {
+        this("scoreSave.bin", "scoreSave.txt");
+    }
 
     /*
-     * Formats and saves scores to "scoreSave.txt" file
+     * Keeps scores in the given file instead, e.g. for a replayed test workload
+     */
+    public ScoreStorage(String filename) {
+        this(filename, null);
+    }
+
+    /*
+     * Keeps scores in filename, starting from the rounds in the text file legacyFilename
+     * if filename does not exist yet
+     */
+    public ScoreStorage(String filename, String legacyFilename) {
+        this.filename = filename;
+        this.legacyFilename = legacyFilename;
+    }
+
+    /*
+     * @return byte[] the start of every score file
+     */
+    private static byte[] header() {
+        return new byte[]{(byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16), (byte) (MAGIC >>> 8), (byte) MAGIC,
+                0, 0, 0, (byte) FORMAT_VERSION};
+    }
+
+    /*
+     * @return ScoreJournal the journal of the score file, once any old text scores are in the file
+     */
+    private ScoreJournal journal() throws IOException {
+        ScoreJournal journal = ScoreJournal.of(this.filename, header());
+        synchronized (journal) {
+            if (this.legacyFilename != null && !new File(this.filename).exists() && new File(this.legacyFilename).isFile()) {
+                migrate(this.legacyFilename, this.filename);
+            }
+        }
+        return journal;
+    }
+
+    /*
+     * Copies every round in a text score file (player words > computer words > player
+     * score > computer score > round #, one round per line) into a new score file.
+     * Lines that cannot be read are skipped.
+     *
+     * @return int the number of rounds copied
+     */
+    public static int migrate(String legacyFilename, String filename) throws IOException {
+        BufferedReader reader = new BufferedReader(new FileReader(legacyFilename));
+        FileOutputStream out = new FileOutputStream(filename);
+        out.write(header());
+        int rounds = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            try {
+                out.write(ScoreRecord.fromFields(Arrays.asList(line.split(" > "))).toBytes());
+                rounds++;
+            } catch (RuntimeException e) {
+                // not a round; nothing to copy
+            }
+        }
+        out.close();
+        reader.close();
+        return rounds;
+    }
+
+    /*
+     * Formats and queues scores to be saved to the save file, from the five fields
+     * player words > computer words > player score > computer score > round #.
      */
     @Override
     public void save(List<String> gameInfo) {
-        File myObj = new File("scoreSave.txt");
+        save(ScoreRecord.fromFields(gameInfo));
+    }
+
+    /*
+     * Queues a round's scores to be saved to the save file. Scores are written in
+     * batches (see ScoreJournal); call flush() to write them out straight away.
+     */
+    public void save(ScoreRecord round) {
         try {
-            myObj.createNewFile();
-            FileWriter myWriter = new FileWriter("scoreSave.txt", true);
-            myWriter.write(gameInfo.get(0) + " > " + gameInfo.get(1) + " > " + gameInfo.get(2) + " > " +
-                    gameInfo.get(3) + " > " + gameInfo.get(4) + "\n");
-            myWriter.close();
-            System.out.println("Successfully Saved Score!");
+            journal().append(round.toBytes());
+            System.out.println("Score queued to be saved.");
         } catch (IOException e) {
             System.out.println("An error occurred.");
             e.printStackTrace();
@@ -34,24 +146,86 @@ public class ScoreStorage implements Storage{
     }
 
     /*
-     * Retrieves and assigns data from "scoreSave.txt" file to saveData attribute
+     * Writes every score saved so far to the save file, e.g. at the end of a game
+     *
+     * @return boolean true if every score saved so far is now in the file
+     */
+    public boolean flush() {
+        try {
+            journal().flush();
+            return true;
+        } catch (IOException e) {
+            System.out.println("An error occurred.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /*
+     * Reads every round in the save file, in the order they were saved.
+     *
+     * @param action called with each round
+     */
+    public void forEach(Consumer<ScoreRecord> action) throws IOException {
+        scan(round -> action.accept(round.toRecord()));
+    }
+
+    /*
+     * Reads every round in the save file, in the order they were saved, straight from
+     * the file mapped into memory (MAP_WINDOW bytes at a time). Each round is passed as
+     * a ScoreCursor, which only decodes the fields that are asked for.
+     *
+     * @param action called with each round
+     */
+    public void scan(Consumer<ScoreCursor> action) throws IOException {
+        flush();
+        if (!new File(this.filename).isFile()) return;
+        try (FileChannel channel = FileChannel.open(Paths.get(this.filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).getInt(0) != MAGIC) {
+                throw new IOException(this.filename + " is not a score file");
+            }
+            ScoreCursor cursor = new ScoreCursor();
+            long offset = HEADER_BYTES;
+            while (offset + 4 <= size) {
+                int window = (int) Math.min(size - offset, MAP_WINDOW);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, window);
+                int position = 0;
+                while (position + 4 <= window) {
+                    int length = buffer.getInt(position);
+                    if (length < 0 || offset + position + 4 + length > size) return; // only partly written
+                    if (position + 4 + length > window) break; // runs past the window; map again from here
+                    cursor.moveTo(buffer, position + 4);
+                    action.accept(cursor);
+                    position += 4 + length;
+                }
+                if (position == 0) throw new IOException("A record in " + this.filename + " is too large to read");
+                offset += position;
+            }
+        }
+    }
+
+    /*
+     * Reads the save file once and reports on it (see ScoreReport): a summary of every
+     * round, the most found words and the best rounds. Assigns the best round's data
+     * to the saveData attribute.
+     *
+     * @param display the number of best rounds and most found words to show
      */
     @Override
     public void retrieve(int display){
         try {
             System.out.println("+++++++++++++ Player Performance Overtime +++++++++++++");
-            File myObj = new File("scoreSave.txt");
-            Scanner myReader = new Scanner(myObj);
-
-            // Retrieves and displays data from file line by line
-            while (myReader.hasNextLine()){
-                this.saveData = Arrays.asList(myReader.nextLine().replace("\n", "").split(" > "));
+            ScoreReport report = new ScoreReport(display);
+            scan(report::add);
+            report.print(System.out);
+            System.out.println("-------------------------------------------------------------");
+            for (ScoreRecord round : report.getBestRounds()) {
+                this.saveData = round.toFields();
                 display();
             }
-
-            myReader.close();
             System.out.println("++++++++++++++++++++ End Of Report ++++++++++++++++++++");
-        } catch (FileNotFoundException e) {System.out.println("An error occurred."); e.printStackTrace();}
+        } catch (IOException e) {System.out.println("An error occurred."); e.printStackTrace();}
     }
 
     /*
@@ -62,8 +236,8 @@ public class ScoreStorage implements Storage{
         System.out.println("Round #: " + this.saveData.get(4));
         System.out.println("Player Found Words: " + this.saveData.get(0));
         System.out.println("Computer Found Words: " + this.saveData.get(1));
-        System.out.println("Number Of Words (Player): " + this.saveData.get(0).split(",").length);
-        System.out.println("Number Of Words (Computer): " + this.saveData.get(1).split(",").length);
+        System.out.println("Number Of Words (Player): " + ScoreReport.countWords(this.saveData.get(0)));
+        System.out.println("Number Of Words (Computer): " + ScoreReport.countWords(this.saveData.get(1)));
         System.out.println("Player Score: " + this.saveData.get(2));
         System.out.println("Computer Score: " + this.saveData.get(3));
         System.out.println("-------------------------------------------------------------");